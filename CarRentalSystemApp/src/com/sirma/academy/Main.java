@@ -2,13 +2,29 @@ package com.sirma.academy;
 
 import com.sirma.academy.model.Car;
 import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.CarStatusUpdate;
 import com.sirma.academy.model.Customer;
+import com.sirma.academy.service.CarJdbcMapping;
 import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CarSortOrder;
+import com.sirma.academy.service.CarStorage;
+import com.sirma.academy.service.ConnectionPool;
+import com.sirma.academy.service.CustomerJdbcMapping;
 import com.sirma.academy.service.CustomerService;
-
+import com.sirma.academy.service.CustomerSortOrder;
+import com.sirma.academy.service.JdbcRepository;
+import com.sirma.academy.service.Page;
+import com.sirma.academy.service.PageCursor;
+import com.sirma.academy.service.RentalLedger;
+import com.sirma.academy.service.ReservationCalendar;
+import com.sirma.academy.service.ServiceMetrics;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Optional;
@@ -17,24 +33,79 @@ import java.util.stream.Collectors;
 
 public class Main {
 
+    private static final String JDBC_URL_PROPERTY = "carrental.jdbc.url";
+    private static final String JDBC_USER_PROPERTY = "carrental.jdbc.user";
+    private static final String JDBC_PASSWORD_PROPERTY = "carrental.jdbc.password";
+    private static final String JDBC_DATA_DIR_PROPERTY = "carrental.jdbc.data.dir";
+    private static final String STORE_PROPERTY = "carrental.store";
+    private static final int PAGE_SIZE = 20;
+
     private static CarService carService;
     private static CustomerService customerService;
+    private static ConnectionPool connectionPool;
     private static Scanner scanner;
 
     public static void main(String[] args) {
         System.out.println("Hello and welcome to Car Rental System!");
 
-        carService = new CarService();
-        customerService = new CustomerService();
+        ServiceMetrics.getInstance().registerMBeans();
+
+        CarStorage storage = carStorage();
+        String jdbcUrl = System.getProperty(JDBC_URL_PROPERTY);
+        if (jdbcUrl != null && !jdbcUrl.isEmpty()) {
+            System.out.println("Using database " + jdbcUrl);
+            connectionPool = new ConnectionPool(jdbcUrl, System.getProperty(JDBC_USER_PROPERTY),
+                    System.getProperty(JDBC_PASSWORD_PROPERTY), ConnectionPool.DEFAULT_MAX_CONNECTIONS);
+            Path dataDirectory = Paths.get(System.getProperty(JDBC_DATA_DIR_PROPERTY, "."));
+            System.out.println("Keeping rentals and reservations in " + dataDirectory.toAbsolutePath().normalize());
+            try {
+                carService = new CarService(new JdbcRepository<>(connectionPool, new CarJdbcMapping()),
+                        new RentalLedger(dataDirectory.resolve("rentals.csv").toString()),
+                        new ReservationCalendar(dataDirectory.resolve("reservations.csv").toString()), storage);
+                customerService = new CustomerService(new JdbcRepository<>(connectionPool, new CustomerJdbcMapping()));
+            } catch (IllegalStateException e) {
+                System.err.println("Cannot load data from " + jdbcUrl + ": " + e.getMessage());
+                System.err.println("Exiting without touching the stored data.");
+                if (carService != null) {
+                    carService.close();
+                }
+                connectionPool.close();
+                return;
+            }
+        } else {
+            carService = new CarService(storage);
+            customerService = new CustomerService();
+        }
 
+        carService.setCustomerService(customerService);
         scanner = new Scanner(System.in);
 
         runMenu();
 
+        carService.close();
+        customerService.close();
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
         scanner.close();
         System.out.println("Exiting Car Rental System. Goodbye!");
     }
 
+    private static CarStorage carStorage() {
+        String store = System.getProperty(STORE_PROPERTY);
+        if (store == null || store.isEmpty()) {
+            return CarStorage.OBJECTS;
+        }
+        try {
+            CarStorage storage = CarStorage.valueOf(store.trim().toUpperCase());
+            System.out.println("Using " + storage.name().toLowerCase() + " car store.");
+            return storage;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown car store '" + store + "'. Using objects.");
+            return CarStorage.OBJECTS;
+        }
+    }
+
     private static void runMenu() {
         int choice;
         do {
@@ -72,6 +143,24 @@ public class Main {
                     case 9:
                         updateCustomersMenu();
                         break;
+                    case 10:
+                        searchCars();
+                        break;
+                    case 11:
+                        searchCustomers();
+                        break;
+                    case 12:
+                        reserveCar();
+                        break;
+                    case 13:
+                        findAvailableCars();
+                        break;
+                    case 14:
+                        returnCars();
+                        break;
+                    case 15:
+                        showMetrics();
+                        break;
                     case 0:
                         System.out.println("Exiting application...");
                         break;
@@ -106,6 +195,12 @@ public class Main {
         System.out.println("9. Update Customers");
         System.out.println("   1. Change info customer");
         System.out.println("   2. Delete customer");
+        System.out.println("10. Search Cars");
+        System.out.println("11. Search Customers");
+        System.out.println("12. Reserve a Car");
+        System.out.println("13. Find Available Cars for a Period");
+        System.out.println("14. Return multiple Cars");
+        System.out.println("15. Show Metrics");
         System.out.println("0. Exit");
         System.out.println("------------------------------");
     }
@@ -139,7 +234,7 @@ public class Main {
         String type = scanner.nextLine();
 
         Car newCar = new Car(id, make, model, year, type, CarStatus.AVAILABLE,
-                null, null, null, null, null, null, 0.0);
+                null, null, null, 0.0);
         if (carService.addCar(newCar)) {
             System.out.println("Car " + make + " " + model + " added successfully.");
         } else {
@@ -149,19 +244,32 @@ public class Main {
 
     private static void listAllCars() {
         System.out.println("\n--- All Available and Rented Cars ---");
-        List<Car> cars = carService.getAllCars();
-
-        List<Car> displayableCars = cars.stream()
-                .filter(car -> car.getStatus() != CarStatus.REMOVE_FROM_AUTO_PARK)
-                .collect(Collectors.toList());
-
-        if (displayableCars.isEmpty()) {
+        if (carService.countByStatus(CarStatus.AVAILABLE) + carService.countByStatus(CarStatus.RENTED) == 0) {
             System.out.println("No cars available or currently rented.");
-        } else {
-            displayableCars.forEach(car -> {
-                System.out.println(car.toString());
-            });
+            return;
+        }
+
+        System.out.print("Sort by (id, make, year, status, return date) [id]: ");
+        String input = scanner.nextLine();
+        CarSortOrder order = input.trim().isEmpty() ? CarSortOrder.ID : CarSortOrder.fromLabel(input);
+        if (order == null) {
+            System.out.println("Unknown sort order: " + input);
+            return;
         }
+
+        PageCursor cursor = null;
+        int pageNumber = 1;
+        do {
+            Page<Car> page = carService.listActiveCars(order, cursor, PAGE_SIZE);
+            System.out.println("-- Page " + pageNumber++ + " (sorted by " + order.getLabel() + ") --");
+            page.getItems().forEach(car -> System.out.println(carService.describe(car)));
+            cursor = page.getNextCursor();
+        } while (cursor != null && askForNextPage());
+    }
+
+    private static boolean askForNextPage() {
+        System.out.print("Press Enter for the next page or q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
     }
 
     private static void updateCarsMenu() {
@@ -209,7 +317,7 @@ public class Main {
         }
         Car carToUpdate = carOptional.get();
 
-        System.out.println("Current Car Info: " + carToUpdate);
+        System.out.println("Current Car Info: " + carService.describe(carToUpdate));
 
         if (carToUpdate.getStatus() == CarStatus.RENTED) {
             System.out.println("Cannot change all information for a rented car. Only return it first.");
@@ -229,17 +337,7 @@ public class Main {
             }
             carToUpdate.setDailyRate(newDailyRate);
 
-            boolean success = carService.updateCarStatusAndRentalInfo(
-                    carToUpdate.getId(),
-                    carToUpdate.getStatus(),
-                    carToUpdate.getCurrentRenterId(),
-                    carToUpdate.getCurrentRenterName(),
-                    carToUpdate.getCurrentRenterPhone(),
-                    carToUpdate.getCurrentRenterEmail(),
-                    carToUpdate.getRentalStartDate(),
-                    carToUpdate.getExpectedReturnDate(),
-                    carToUpdate.getDailyRate()
-            );
+            boolean success = carService.saveCar(carToUpdate.getId());
             if (success) {
                 System.out.println("Car " + carToUpdate.getId() + " daily rate updated successfully.");
             } else {
@@ -292,17 +390,7 @@ public class Main {
             }
         }
 
-        boolean success = carService.updateCarStatusAndRentalInfo(
-                carToUpdate.getId(),
-                carToUpdate.getStatus(),
-                carToUpdate.getCurrentRenterId(),
-                carToUpdate.getCurrentRenterName(),
-                carToUpdate.getCurrentRenterPhone(),
-                carToUpdate.getCurrentRenterEmail(),
-                carToUpdate.getRentalStartDate(),
-                carToUpdate.getExpectedReturnDate(),
-                carToUpdate.getDailyRate()
-        );
+        boolean success = carService.saveCar(carToUpdate.getId());
 
         if (success) {
             System.out.println("Car information updated successfully for ID: " + carToUpdate.getId());
@@ -332,7 +420,7 @@ public class Main {
         boolean success = carService.updateCarStatusAndRentalInfo(
                 carId,
                 CarStatus.REMOVE_FROM_AUTO_PARK,
-                null, null, null, null, null, null, 0.0
+                null, null, null, 0.0
         );
 
         if (success) {
@@ -370,13 +458,114 @@ public class Main {
 
     private static void listAllCustomers() {
         System.out.println("\n--- All Customers ---");
-        List<Customer> customers = customerService.getCustomers();
-        if (customers.isEmpty()) {
+        if (customerService.getCustomers().isEmpty()) {
             System.out.println("No customers available.");
+            return;
+        }
+
+        System.out.print("Sort by (id, name) [id]: ");
+        String input = scanner.nextLine();
+        CustomerSortOrder order = input.trim().isEmpty() ? CustomerSortOrder.ID : CustomerSortOrder.fromLabel(input);
+        if (order == null) {
+            System.out.println("Unknown sort order: " + input);
+            return;
+        }
+
+        PageCursor cursor = null;
+        int pageNumber = 1;
+        do {
+            Page<Customer> page = customerService.listCustomers(order, cursor, PAGE_SIZE);
+            System.out.println("-- Page " + pageNumber++ + " (sorted by " + order.getLabel() + ") --");
+            page.getItems().forEach(customer -> System.out.println(customer.toString()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && askForNextPage());
+    }
+
+    private static void searchCars() {
+        System.out.println("\n--- Search Cars ---");
+        System.out.print("Enter search text (ID, make, model, type, renter or date): ");
+        String criteria = scanner.nextLine();
+
+        List<Car> foundCars = carService.searchCars(criteria);
+        if (foundCars.isEmpty()) {
+            System.out.println("No cars match '" + criteria + "'.");
+        } else {
+            foundCars.forEach(car -> System.out.println(carService.describe(car)));
+        }
+    }
+
+    private static void searchCustomers() {
+        System.out.println("\n--- Search Customers ---");
+        System.out.print("Enter search text (ID, name, phone or email): ");
+        String criteria = scanner.nextLine();
+
+        List<Customer> foundCustomers = customerService.searchCustomers(criteria);
+        if (foundCustomers.isEmpty()) {
+            System.out.println("No customers match '" + criteria + "'.");
+        } else {
+            foundCustomers.forEach(customer -> System.out.println(customer.toString()));
+        }
+    }
+
+    private static void reserveCar() {
+        System.out.println("\n--- Reserve a Car ---");
+        System.out.print("Enter Car ID to reserve: ");
+        String carId = scanner.nextLine();
+        if (!carService.findCarById(carId).isPresent()) {
+            System.out.println("Error: Car with ID " + carId + " not found.");
+            return;
+        }
+
+        System.out.print("Enter Customer ID: ");
+        String customerId = scanner.nextLine();
+        if (!customerService.findCustomerById(customerId).isPresent()) {
+            System.out.println("Error: Customer with ID " + customerId + " not found.");
+            return;
+        }
+
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            System.out.print("Enter Reservation Start Date (YYYY-MM-DD): ");
+            startDate = LocalDate.parse(scanner.nextLine());
+            System.out.print("Enter Reservation End Date (YYYY-MM-DD): ");
+            endDate = LocalDate.parse(scanner.nextLine());
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use YYYY-MM-DD.");
+            return;
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            System.out.println("Error: Reservation start date cannot be in the past.");
+            return;
+        }
+
+        if (!carService.reserveCar(carId, customerId, startDate, endDate)) {
+            System.out.println("Failed to reserve car " + carId + ".");
+        }
+    }
+
+    private static void findAvailableCars() {
+        System.out.println("\n--- Find Available Cars for a Period ---");
+        System.out.print("Enter Type (leave empty for any type): ");
+        String type = scanner.nextLine();
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            System.out.print("Enter From Date (YYYY-MM-DD): ");
+            from = LocalDate.parse(scanner.nextLine());
+            System.out.print("Enter To Date (YYYY-MM-DD): ");
+            to = LocalDate.parse(scanner.nextLine());
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use YYYY-MM-DD.");
+            return;
+        }
+
+        List<Car> availableCars = carService.findAvailableCars(type, from, to);
+        if (availableCars.isEmpty()) {
+            System.out.println("No cars are available from " + from + " to " + to + ".");
         } else {
-            customers.forEach(customer -> {
-                System.out.println(customer.toString());
-            });
+            availableCars.forEach(car -> System.out.println(carService.describe(car)));
         }
     }
 
@@ -450,7 +639,6 @@ public class Main {
         } else {
             System.out.println("Failed to update customer information for ID: " + customerToUpdate.getId() + " (might not exist or file error).");
         }
-        customerService.saveDataToCustomersFile();
     }
 
     private static void deleteCustomer() {
@@ -458,10 +646,8 @@ public class Main {
         System.out.print("Enter Customer ID to delete: ");
         String customerId = scanner.nextLine();
 
-        List<Car> rentedCarsByCustomer = carService.getAllCars().stream()
-                .filter(car -> car.getStatus() == CarStatus.RENTED &&
-                        car.getCurrentRenterId() != null &&
-                        car.getCurrentRenterId().equals(customerId))
+        List<Car> rentedCarsByCustomer = carService.findByRenter(customerId).stream()
+                .filter(car -> car.getStatus() == CarStatus.RENTED)
                 .collect(Collectors.toList());
 
         if (!rentedCarsByCustomer.isEmpty()) {
@@ -555,9 +741,6 @@ public class Main {
                 carId,
                 CarStatus.RENTED,
                 customer.getId(),
-                customer.getName(),
-                customer.getPhoneNumber(),
-                customer.getEmail(),
                 rentalStartDate,
                 expectedReturnDate,
                 dailyRate
@@ -592,7 +775,7 @@ public class Main {
         boolean success = carService.updateCarStatusAndRentalInfo(
                 carId,
                 CarStatus.AVAILABLE,
-                null, null, null, null, null, null, 0.0
+                null, null, null, 0.0
         );
 
         if (success) {
@@ -602,16 +785,38 @@ public class Main {
         }
     }
 
+    private static void returnCars() {
+        System.out.println("\n--- Return multiple Cars ---");
+        System.out.print("Enter Car IDs to return (comma separated): ");
+        String input = scanner.nextLine();
+
+        List<CarStatusUpdate> updates = new ArrayList<>();
+        for (String carId : input.split(",")) {
+            if (!carId.trim().isEmpty()) {
+                updates.add(CarStatusUpdate.returnCar(carId.trim()));
+            }
+        }
+        if (updates.isEmpty()) {
+            System.out.println("No car IDs entered.");
+            return;
+        }
+
+        carService.updateCars(updates).forEach(System.out::println);
+    }
+
+    private static void showMetrics() {
+        System.out.println("\n--- Metrics ---");
+        System.out.print(ServiceMetrics.getInstance().dump());
+    }
+
     private static void listAllRentedCars() {
         System.out.println("\n--- All Rented Cars ---");
-        List<Car> rentedCars = carService.getAllCars().stream()
-                .filter(car -> car.getStatus() == CarStatus.RENTED)
-                .collect(Collectors.toList());
+        List<Car> rentedCars = carService.findByStatus(CarStatus.RENTED);
 
         if (rentedCars.isEmpty()) {
             System.out.println("No cars are currently rented.");
         } else {
-            rentedCars.forEach(System.out::println);
+            rentedCars.forEach(car -> System.out.println(carService.describe(car)));
         }
     }
 }
\ No newline at end of file
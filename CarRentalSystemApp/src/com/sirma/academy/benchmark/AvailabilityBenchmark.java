@@ -0,0 +1,143 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.Reservation;
+import com.sirma.academy.service.CarService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class AvailabilityBenchmark {
+
+    private static final int FLEET_SIZE = 100_000;
+    private static final String[] TYPES = {"Sedan", "SUV", "Hatchback", "Van", "Coupe"};
+    private static final int WINDOW_DAYS = 90;
+    private static final int WARMUP_QUERIES = 50;
+    private static final int MEASURED_QUERIES = 200;
+
+    public static void main(String[] args) throws IOException {
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("availability-bench");
+        try {
+            LocalDate today = LocalDate.now();
+            writeCars(dataDirectory.resolve("cars.csv"), today);
+            writeReservations(dataDirectory.resolve("reservations.csv"), today);
+
+            CarService carService = new CarService(dataDirectory.resolve("cars.csv").toString());
+            LocalDate from = today.plusDays(1);
+            LocalDate to = from.plusDays(WINDOW_DAYS - 1);
+
+            int bitsetCount = carService.findAvailableCars("SUV", from, to).size();
+            int scanCount = scanAvailableCars(carService, "SUV", from, to);
+            if (bitsetCount != scanCount) {
+                System.err.println("Bitset and scan results differ: " + bitsetCount + " vs " + scanCount);
+            }
+
+            System.out.println("--- Availability queries over " + FLEET_SIZE + " cars, " + WINDOW_DAYS + "-day window ---");
+            System.out.println("free SUVs for the whole window: " + bitsetCount);
+            report("scan findAvailableCars", measure(() -> scanAvailableCars(carService, "SUV", from, to)));
+            report("bitset findAvailableCars", measure(() -> carService.findAvailableCars("SUV", from, to).size()));
+            report("bitset countAvailableByDay", measure(() -> {
+                Map<LocalDate, Integer> byDay = carService.countAvailableByDay("SUV", from, to);
+                return byDay.get(from);
+            }));
+        } finally {
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static int scanAvailableCars(CarService carService, String type, LocalDate from, LocalDate to) {
+        int available = 0;
+        for (Car car : carService.getAllCars()) {
+            if (!type.equalsIgnoreCase(car.getType()) || car.getStatus() == CarStatus.REMOVE_FROM_AUTO_PARK) {
+                continue;
+            }
+            if (car.getStatus() == CarStatus.RENTED
+                    && !car.getRentalStartDate().isAfter(to) && !car.getExpectedReturnDate().isBefore(from)) {
+                continue;
+            }
+            boolean booked = false;
+            List<Reservation> reservations = carService.findReservations(car.getId());
+            for (Reservation reservation : reservations) {
+                if (reservation.overlaps(from, to)) {
+                    booked = true;
+                    break;
+                }
+            }
+            if (!booked) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    private static double measure(Query query) {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            checksum += query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            checksum += query.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum < 0) {
+            System.err.println("Unexpected checksum " + checksum);
+        }
+        return elapsed / 1_000_000.0 / MEASURED_QUERIES;
+    }
+
+    private static void report(String label, double millis) {
+        System.out.println(label + ": " + String.format("%.3f", millis) + " ms/query");
+    }
+
+    private static void writeCars(Path file, LocalDate today) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent");
+            bw.newLine();
+            for (int i = 0; i < FLEET_SIZE; i++) {
+                String type = TYPES[i % TYPES.length];
+                int roll = random.nextInt(100);
+                if (roll < 25) {
+                    LocalDate start = today.minusDays(random.nextInt(5));
+                    LocalDate expected = today.plusDays(1 + random.nextInt(20));
+                    bw.write(i + ",Toyota,Corolla,2020," + type + ",RENTED,c" + i + ",Customer " + i + ",0888,c" + i + "@example.com,"
+                            + start + "," + expected + ",45.00");
+                } else if (roll < 28) {
+                    bw.write(i + ",Toyota,Corolla,2020," + type + ",REMOVE_FROM_AUTO_PARK,,,,,,,0.00");
+                } else {
+                    bw.write(i + ",Toyota,Corolla,2020," + type + ",AVAILABLE,,,,,,,0.00");
+                }
+                bw.newLine();
+            }
+        }
+    }
+
+    private static void writeReservations(Path file, LocalDate today) throws IOException {
+        Random random = new Random(7);
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("carId,customerId,startDate,endDate");
+            bw.newLine();
+            for (int i = 0; i < FLEET_SIZE; i++) {
+                LocalDate start = today.plusDays(25 + random.nextInt(30));
+                for (int r = 0; r < 2 && random.nextInt(100) < 40; r++) {
+                    LocalDate end = start.plusDays(1 + random.nextInt(10));
+                    bw.write(i + ",c" + random.nextInt(FLEET_SIZE) + "," + start + "," + end);
+                    bw.newLine();
+                    start = end.plusDays(5 + random.nextInt(60));
+                }
+            }
+        }
+    }
+
+    private interface Query {
+        long run();
+    }
+}
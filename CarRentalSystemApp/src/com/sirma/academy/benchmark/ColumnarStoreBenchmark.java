@@ -0,0 +1,138 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.Customer;
+import com.sirma.academy.service.ColumnarCarStore;
+import com.sirma.academy.service.FileService;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+public class ColumnarStoreBenchmark {
+
+    private static final int DEFAULT_CARS = 1_000_000;
+    private static final int WARMUP_SCANS = 20;
+    private static final int MEASURED_SCANS = 50;
+    private static final int WRITER_ROWS = 100;
+    private static final int WRITER_ROUNDS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CARS;
+        PrintStream console = System.out;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("columnar-bench");
+        try {
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            DataGenerator.writeCars(carsFile, size, Math.max(1, size / 2), 42L);
+
+            long baseline = usedHeap();
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            List<Car> cars = new FileService().loadData(carsFile.toString(), ServiceBenchmarkSuite.CAR_PARSER);
+            System.setOut(console);
+            long listHeap = usedHeap() - baseline;
+
+            ColumnarCarStore store = ColumnarCarStore.of(cars);
+            console.println("--- " + size + " cars: object list vs off-heap columnar store ---");
+            scan("count RENTED (objects)", () -> {
+                int count = 0;
+                for (Car car : cars) {
+                    count += car.getStatus() == CarStatus.RENTED ? 1 : 0;
+                }
+                return count;
+            });
+            scan("count RENTED (status column)", () -> store.countByStatus(CarStatus.RENTED));
+            scan("filter type SUV (objects)", () -> {
+                int count = 0;
+                for (Car car : cars) {
+                    count += "SUV".equals(car.getType()) ? 1 : 0;
+                }
+                return count;
+            });
+            scan("filter type SUV (type column)", () -> store.rowsByType("SUV").cardinality());
+
+            Car sample = cars.get(size / 2);
+            Car view = store.get(sample.getId());
+            Customer renter = new Customer(sample.getCurrentRenterId(), "Sample Renter", "0888", "renter@example.com");
+            boolean identical = view != null && view.toString().equals(sample.toString())
+                    && view.toString(renter).equals(sample.toString(renter));
+
+            cars.clear();
+            long storeHeap = usedHeap() - baseline;
+            console.println(String.format("object list: %.1f MB heap (%d bytes/car)",
+                    listHeap / 1024.0 / 1024.0, listHeap / size));
+            console.println(String.format("columnar store: %.1f MB heap + %.1f MB off-heap (%d bytes/car)",
+                    storeHeap / 1024.0 / 1024.0, store.offHeapBytes() / 1024.0 / 1024.0,
+                    (storeHeap + store.offHeapBytes()) / size));
+            console.println("flyweight view matches source car: " + identical);
+            console.println("lost updates with concurrent writers: " + lostUpdates());
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static int lostUpdates() throws InterruptedException {
+        List<Car> source = new ArrayList<>(WRITER_ROWS);
+        for (int i = 0; i < WRITER_ROWS; i++) {
+            source.add(new Car(String.valueOf(i), "Toyota", "Corolla", 2000, "Sedan", CarStatus.AVAILABLE, null, null, null, 0.0));
+        }
+        ColumnarCarStore store = ColumnarCarStore.of(source);
+        List<Car> views = new ArrayList<>(WRITER_ROWS);
+        for (Car car : source) {
+            views.add(store.get(car.getId()));
+        }
+        AtomicInteger lost = new AtomicInteger();
+        Thread years = new Thread(() -> {
+            for (int round = 1; round <= WRITER_ROUNDS; round++) {
+                for (Car view : views) {
+                    if (view.getYear() != 2000 + round - 1) {
+                        lost.incrementAndGet();
+                    }
+                    view.setYear(2000 + round);
+                }
+            }
+        });
+        Thread rates = new Thread(() -> {
+            for (int round = 1; round <= WRITER_ROUNDS; round++) {
+                for (Car view : views) {
+                    if (view.getDailyRate() != round - 1) {
+                        lost.incrementAndGet();
+                    }
+                    view.setDailyRate(round);
+                }
+            }
+        });
+        years.start();
+        rates.start();
+        years.join();
+        rates.join();
+        return lost.get();
+    }
+
+    private static void scan(String name, IntSupplier scan) {
+        int result = 0;
+        for (int i = 0; i < WARMUP_SCANS; i++) {
+            result += scan.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_SCANS; i++) {
+            result += scan.getAsInt();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_SCANS;
+        System.out.println(String.format("%-32s %8.2f ms/scan (%d matches)", name, millis, result / (WARMUP_SCANS + MEASURED_SCANS)));
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,153 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CarStorage;
+import com.sirma.academy.service.Durability;
+import com.sirma.academy.service.RentalLedger;
+import com.sirma.academy.service.ReservationCalendar;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentRentalStress {
+
+    private static final int THREADS = 8;
+    private static final int CARS = 200;
+    private static final int ROUNDS = 25;
+
+    public static void main(String[] args) throws Exception {
+        CarStorage storage = args.length > 0 ? CarStorage.valueOf(args[0].toUpperCase()) : CarStorage.OBJECTS;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("cars-stress");
+        Path carsFile = dataDirectory.resolve("cars.csv");
+        PrintStream console = System.out;
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        try {
+            writeCars(carsFile);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            CarService carService = new CarService(CarService.csvRepository(carsFile.toString(), Durability.SYNCHRONOUS),
+                    new RentalLedger(dataDirectory.resolve("rentals.csv").toString()),
+                    new ReservationCalendar(dataDirectory.resolve("reservations.csv").toString()), storage);
+
+            for (int round = 0; round < ROUNDS; round++) {
+                AtomicIntegerArray wins = new AtomicIntegerArray(CARS);
+                AtomicReferenceArray<String> winners = new AtomicReferenceArray<>(CARS);
+                runConcurrently(thread -> {
+                    String renterId = "renter-" + thread;
+                    for (int carIndex : shuffledIndexes(thread)) {
+                        boolean rented = carService.updateCarStatusAndRentalInfo(String.valueOf(carIndex), CarStatus.RENTED,
+                                renterId, LocalDate.now(), LocalDate.now().plusDays(3), 40.0);
+                        if (rented) {
+                            wins.incrementAndGet(carIndex);
+                            winners.set(carIndex, renterId);
+                        }
+                    }
+                });
+
+                for (int i = 0; i < CARS; i++) {
+                    Car car = carService.findCarById(String.valueOf(i)).get();
+                    if (wins.get(i) != 1) {
+                        failures.add("Round " + round + ": car " + i + " was rented " + wins.get(i) + " times.");
+                    } else if (car.getStatus() != CarStatus.RENTED || !winners.get(i).equals(car.getCurrentRenterId())) {
+                        failures.add("Round " + round + ": car " + i + " is held by " + car.getCurrentRenterId()
+                                + " but " + winners.get(i) + " won the rental.");
+                    }
+                }
+
+                runConcurrently(thread -> {
+                    for (int carIndex : shuffledIndexes(thread)) {
+                        if (carIndex % THREADS == thread) {
+                            carService.updateCarStatusAndRentalInfo(String.valueOf(carIndex), CarStatus.AVAILABLE,
+                                    null, null, null, 0.0);
+                        }
+                    }
+                });
+            }
+
+            runConcurrently(thread -> {
+                for (int carIndex = thread; carIndex < CARS; carIndex += THREADS * 2) {
+                    carService.updateCarStatusAndRentalInfo(String.valueOf(carIndex), CarStatus.RENTED,
+                            "renter-" + thread, LocalDate.now(), LocalDate.now().plusDays(1), 10.0);
+                }
+            });
+
+            CarService reloaded = new CarService(carsFile.toString());
+            for (Car car : carService.getAllCars()) {
+                Car persisted = reloaded.findCarById(car.getId()).orElse(null);
+                if (persisted == null || persisted.getStatus() != car.getStatus()
+                        || !String.valueOf(persisted.getCurrentRenterId()).equals(String.valueOf(car.getCurrentRenterId()))) {
+                    failures.add("Car " + car.getId() + " was not persisted consistently: memory=" + car + " file=" + persisted);
+                }
+            }
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("PASSED: " + ROUNDS + " rounds of " + THREADS + " threads racing for " + CARS + " cars ("
+                    + storage.name().toLowerCase() + " store), no double bookings.");
+        } else {
+            failures.forEach(System.out::println);
+            System.out.println("FAILED: " + failures.size() + " violations.");
+            System.exit(1);
+        }
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(thread);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static List<Integer> shuffledIndexes(int seed) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            indexes.add(i);
+        }
+        Collections.shuffle(indexes, new Random(seed));
+        return indexes;
+    }
+
+    private static void writeCars(Path file) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent");
+            bw.newLine();
+            for (int i = 0; i < CARS; i++) {
+                bw.write(i + ",Toyota,Corolla,2020,Sedan,AVAILABLE,,,,,,,0.00");
+                bw.newLine();
+            }
+        }
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sirma.academy.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+public class DataGenerator {
+
+    public static final String CARS_HEADER = "id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent";
+    public static final String CUSTOMERS_HEADER = "id,name,phone,email";
+    public static final double DEFAULT_RENTED_RATIO = 0.30;
+    private static final double REMOVED_RATIO = 0.02;
+    private static final double SKEW_EXPONENT = 3.0;
+
+    private static final String[][] MODELS_BY_MAKE = {
+            {"Toyota", "Corolla", "Yaris", "RAV4", "Camry"},
+            {"Audi", "A3", "A4", "Q5", "TT"},
+            {"Skoda", "Octavia", "Fabia", "Kodiaq", "Superb"},
+            {"Mazda", "6", "3", "CX-5", "MX-5"},
+            {"Volkswagen", "Golf", "Passat", "Tiguan", "Polo"},
+            {"Mini", "Cooper", "Countryman", "Paceman", "Clubman"}
+    };
+    private static final String[] TYPES = {"Sedan", "Hatchback", "SUV", "Coupe", "Wagon", "Van"};
+    private static final String[] FIRST_NAMES = {"Ivan", "Maria", "Georgi", "Elena", "Petar", "Nikol", "Dimitar", "Yana"};
+    private static final String[] LAST_NAMES = {"Petrov", "Ivanova", "Georgiev", "Dimitrova", "Nikolov", "Stoyanova"};
+
+    public enum RenterDistribution {
+        UNIFORM,
+        SKEWED
+    }
+
+    private DataGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: DataGenerator <directory> <cars> <customers> [rentedRatio] [uniform|skewed] [seed]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int cars = Integer.parseInt(args[1]);
+        int customers = Integer.parseInt(args[2]);
+        double rentedRatio = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_RENTED_RATIO;
+        RenterDistribution distribution = args.length > 4
+                ? RenterDistribution.valueOf(args[4].toUpperCase(Locale.ROOT)) : RenterDistribution.UNIFORM;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42L;
+        if (rentedRatio < 0 || rentedRatio + REMOVED_RATIO > 1) {
+            System.out.println("Rented ratio must be between 0 and " + (1 - REMOVED_RATIO) + ".");
+            return;
+        }
+        Files.createDirectories(directory);
+        writeCustomers(directory.resolve("customers.csv"), customers);
+        writeCars(directory.resolve("cars.csv"), cars, customers, rentedRatio, distribution, seed);
+        System.out.println("Generated " + cars + " cars (" + Math.round(rentedRatio * 100) + "% rented, "
+                + distribution.name().toLowerCase(Locale.ROOT) + " renters) and " + customers + " customers in " + directory);
+    }
+
+    public static String carId(int index) {
+        return "CAR" + index;
+    }
+
+    public static String customerId(int index) {
+        return "CUS" + index;
+    }
+
+    public static void writeCars(Path file, int cars, int customers, long seed) throws IOException {
+        writeCars(file, cars, customers, DEFAULT_RENTED_RATIO, RenterDistribution.UNIFORM, seed);
+    }
+
+    public static void writeCars(Path file, int cars, int customers, double rentedRatio,
+                                 RenterDistribution distribution, long seed) throws IOException {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            bw.write(CARS_HEADER);
+            bw.newLine();
+            for (int i = 0; i < cars; i++) {
+                String[] make = MODELS_BY_MAKE[random.nextInt(MODELS_BY_MAKE.length)];
+                StringBuilder line = new StringBuilder(128)
+                        .append(carId(i)).append(',')
+                        .append(make[0]).append(',')
+                        .append(make[1 + random.nextInt(make.length - 1)]).append(',')
+                        .append(2005 + random.nextInt(20)).append(',')
+                        .append(TYPES[random.nextInt(TYPES.length)]).append(',');
+                double roll = random.nextDouble();
+                if (roll < rentedRatio && customers > 0) {
+                    int customer = pickRenter(random, customers, distribution);
+                    LocalDate start = today.minusDays(random.nextInt(10));
+                    line.append("RENTED,")
+                            .append(customerId(customer)).append(",,,,")
+                            .append(start).append(',')
+                            .append(start.plusDays(1 + random.nextInt(21))).append(',')
+                            .append(String.format(Locale.ROOT, "%.2f", 20 + random.nextInt(16000) / 100.0));
+                } else if (roll < rentedRatio + REMOVED_RATIO) {
+                    line.append("REMOVE_FROM_AUTO_PARK,,,,,,,0.00");
+                } else {
+                    line.append("AVAILABLE,,,,,,,0.00");
+                }
+                bw.write(line.toString());
+                bw.newLine();
+            }
+        }
+    }
+
+    public static void writeCustomers(Path file, int customers) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            bw.write(CUSTOMERS_HEADER);
+            bw.newLine();
+            for (int i = 0; i < customers; i++) {
+                bw.write(customerId(i) + "," + customerName(i) + "," + customerPhone(i) + "," + customerEmail(i));
+                bw.newLine();
+            }
+        }
+    }
+
+    public static int pickRenter(Random random, int customers, RenterDistribution distribution) {
+        if (distribution == RenterDistribution.SKEWED) {
+            return (int) (customers * Math.pow(random.nextDouble(), SKEW_EXPONENT));
+        }
+        return random.nextInt(customers);
+    }
+
+    private static String customerName(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    private static String customerPhone(int index) {
+        return String.format(Locale.ROOT, "0888%06d", index % 1_000_000);
+    }
+
+    private static String customerEmail(int index) {
+        return "customer" + index + "@example.com";
+    }
+}
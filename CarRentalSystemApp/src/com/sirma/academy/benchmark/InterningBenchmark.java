@@ -0,0 +1,152 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.StringDictionary;
+import com.sirma.academy.service.CsvRecord;
+import com.sirma.academy.service.FileService;
+import com.sirma.academy.service.FleetIndex;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class InterningBenchmark {
+
+    private static final int DEFAULT_CARS = 1_000_000;
+    private static final int LOAD_ROUNDS = 5;
+    private static final int[] INTERNING_STRIDES = {1, 3, 7, 9};
+    private static final int INTERNING_THREADS = INTERNING_STRIDES.length;
+    private static final int INTERNED_VALUES = 5_000;
+    private static final CarStatus[] CAR_STATUSES = CarStatus.values();
+
+    private static final Function<CsvRecord, Car> COPYING_PARSER = record -> new Car(
+            record.field(0), record.field(1), record.field(2), record.intField(3), record.field(4),
+            record.enumField(5, CAR_STATUSES),
+            record.isEmpty(6) ? null : record.field(6),
+            record.isEmpty(10) ? null : record.dateField(10),
+            record.isEmpty(11) ? null : record.dateField(11),
+            record.isEmpty(12) ? 0.0 : record.doubleField(12));
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CARS;
+        PrintStream console = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("interning-bench");
+        try {
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            DataGenerator.writeCars(carsFile, size, Math.max(1, size / 2), 42L);
+            FileService fileService = new FileService();
+            console.println("--- Loading " + size + " cars with dictionary-encoded make/model/type ---");
+
+            System.setOut(discard);
+            double copyingMillis = loadMillis(fileService, carsFile, COPYING_PARSER);
+            double interningMillis = loadMillis(fileService, carsFile, ServiceBenchmarkSuite.CAR_PARSER);
+            System.setOut(console);
+            console.println(String.format("parse with field() + intern in Car: %.0f ms | internedField() from the read buffer: %.0f ms",
+                    copyingMillis, interningMillis));
+
+            System.setOut(discard);
+            List<Car> cars = fileService.loadData(carsFile.toString(), ServiceBenchmarkSuite.CAR_PARSER);
+            System.setOut(console);
+
+            String[][] shared = new String[cars.size()][];
+            long baseline = usedHeap();
+            for (int i = 0; i < cars.size(); i++) {
+                Car car = cars.get(i);
+                shared[i] = new String[]{car.getMake(), car.getModel(), car.getType()};
+            }
+            long sharedHeap = usedHeap() - baseline;
+            for (int i = 0; i < cars.size(); i++) {
+                Car car = cars.get(i);
+                shared[i] = new String[]{new String(car.getMake()), new String(car.getModel()), new String(car.getType())};
+            }
+            long copiedHeap = usedHeap() - baseline;
+
+            long saved = copiedHeap - sharedHeap;
+            console.println(String.format("distinct values: %d makes, %d models, %d types",
+                    StringDictionary.MAKES.size(), StringDictionary.MODELS.size(), StringDictionary.TYPES.size()));
+            console.println(String.format("heap saved by sharing make/model/type: %.1f MB (%d bytes/car)",
+                    saved / 1024.0 / 1024.0, saved / cars.size()));
+
+            String type = "SUV";
+            int typeCode = StringDictionary.TYPES.keyCodeOf(type);
+            int byCode = 0;
+            int byEquals = 0;
+            long start = System.nanoTime();
+            for (Car car : cars) {
+                byCode += car.getTypeCode() == typeCode ? 1 : 0;
+            }
+            long codeNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (Car car : cars) {
+                byEquals += type.equals(car.getType()) ? 1 : 0;
+            }
+            long equalsNanos = System.nanoTime() - start;
+            console.println(String.format("type filter: int code %.2f ms (%d) | String.equals %.2f ms (%d)",
+                    codeNanos / 1_000_000.0, byCode, equalsNanos / 1_000_000.0, byEquals));
+
+            FleetIndex fleetIndex = new FleetIndex();
+            fleetIndex.rebuild(cars);
+            console.println(String.format("fleet index by type code: SUV %d | suv %d | Suv %d",
+                    fleetIndex.countByType("SUV"), fleetIndex.countByType("suv"), fleetIndex.countByType("Suv")));
+            console.println("concurrent interning mismatches: " + concurrentInterningMismatches());
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static int concurrentInterningMismatches() throws InterruptedException {
+        StringDictionary dictionary = new StringDictionary(true);
+        int[][] codes = new int[INTERNING_THREADS][INTERNED_VALUES];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < INTERNING_THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < INTERNED_VALUES; i++) {
+                    int value = (i * INTERNING_STRIDES[thread]) % INTERNED_VALUES;
+                    String spelling = thread % 2 == 0 ? "Type-" + value : "TYPE-" + value;
+                    int code = dictionary.codeOf(spelling);
+                    codes[thread][value] = spelling.equals(dictionary.valueOf(code)) ? dictionary.keyCodeOf(code) : StringDictionary.NO_CODE;
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int mismatches = Math.abs(dictionary.size() - 2 * INTERNED_VALUES);
+        for (int value = 0; value < INTERNED_VALUES; value++) {
+            String canonical = dictionary.valueOf(codes[0][value]);
+            for (int t = 0; t < INTERNING_THREADS; t++) {
+                if (codes[t][value] != codes[0][value] || canonical == null || !canonical.equalsIgnoreCase("type-" + value)) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static double loadMillis(FileService fileService, Path carsFile, Function<CsvRecord, Car> parser) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < LOAD_ROUNDS; round++) {
+            long start = System.nanoTime();
+            fileService.loadData(carsFile.toString(), parser);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+        }
+        return best;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
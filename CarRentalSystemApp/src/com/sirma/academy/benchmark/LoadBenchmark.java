@@ -0,0 +1,90 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoadBenchmark {
+
+    private static final int DEFAULT_ROWS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("cars-load-bench");
+        Path carsFile = dataDirectory.resolve("cars.csv");
+        try {
+            writeCars(carsFile, rows);
+            System.out.println("--- Cold load of " + rows + " cars (" + Files.size(carsFile) / (1024 * 1024) + " MB) ---");
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                int legacyCount = loadWithSplit(carsFile.toString()).size();
+                long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+
+                start = System.nanoTime();
+                int streamingCount = new CarService(carsFile.toString()).getAllCars().size();
+                long streamingMillis = (System.nanoTime() - start) / 1_000_000;
+
+                System.out.println("round " + round
+                        + " | readLine + split: " + legacyMillis + " ms (" + legacyCount + " cars)"
+                        + " | CsvReader: " + streamingMillis + " ms (" + streamingCount + " cars)");
+            }
+        } finally {
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static List<Car> loadWithSplit(String filePath) throws IOException {
+        List<Car> cars = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            String line = br.readLine();
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length != 13) {
+                    continue;
+                }
+                cars.add(new Car(parts[0], parts[1], parts[2], Integer.parseInt(parts[3]), parts[4],
+                        CarStatus.valueOf(parts[5]),
+                        parts[6].isEmpty() ? null : parts[6],
+                        parts[10].isEmpty() ? null : LocalDate.parse(parts[10]),
+                        parts[11].isEmpty() ? null : LocalDate.parse(parts[11]),
+                        parts[12].isEmpty() ? 0.0 : Double.parseDouble(parts[12])));
+            }
+        }
+        return cars;
+    }
+
+    private static void writeCars(Path file, int rows) throws IOException {
+        String[] makes = {"Toyota", "Audi", "Mazda", "Mini", "Skoda"};
+        String[] models = {"Corolla", "A3", "6", "Paceman", "Octavia"};
+        String[] types = {"Sedan", "Hatchback", "SUV", "Coupe", "Cabrio"};
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent");
+            bw.newLine();
+            for (int i = 0; i < rows; i++) {
+                int variant = i % makes.length;
+                if (i % 3 == 0) {
+                    bw.write(i + "," + makes[variant] + "," + models[variant] + "," + (2000 + i % 25) + "," + types[variant]
+                            + ",RENTED," + (i % 50_000) + ",Customer " + (i % 50_000) + ",0888" + (i % 50_000)
+                            + ",customer" + (i % 50_000) + "@example.com,2025-07-0" + (1 + i % 9)
+                            + ",2025-08-1" + (i % 10) + ",55.50");
+                } else {
+                    bw.write(i + "," + makes[variant] + "," + models[variant] + "," + (2000 + i % 25) + "," + types[variant]
+                            + ",AVAILABLE,,,,,,,0.00");
+                }
+                bw.newLine();
+            }
+        }
+    }
+}
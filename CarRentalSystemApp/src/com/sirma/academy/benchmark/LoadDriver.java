@@ -0,0 +1,303 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.Customer;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CustomerService;
+import com.sirma.academy.service.Durability;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadDriver {
+
+    private static final String[] OPERATIONS = {"rent", "return", "search", "add"};
+    private static final int RENT = 0;
+    private static final int RETURN = 1;
+    private static final int SEARCH = 2;
+    private static final int ADD = 3;
+    private static final String[] SEARCH_TERMS = {"Octavia", "Golf", "customer12", "RAV4", "Countryman", "Audi", "SUV"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && (args[0].equals("-h") || args[0].equals("--help"))) {
+            System.out.println("Usage: LoadDriver [cars] [customers] [threads] [seconds] [rent:return:search:add]"
+                    + " [synchronous|wait_for_flush|fire_and_forget] [uniform|skewed] [rentedRatio]");
+            return;
+        }
+        int cars = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int customers = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(1, cars / 2);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int[] mix = args.length > 4 ? parseMix(args[4]) : new int[]{30, 30, 30, 10};
+        Durability durability = args.length > 5
+                ? Durability.valueOf(args[5].toUpperCase(Locale.ROOT)) : Durability.SYNCHRONOUS;
+        DataGenerator.RenterDistribution distribution = args.length > 6
+                ? DataGenerator.RenterDistribution.valueOf(args[6].toUpperCase(Locale.ROOT)) : DataGenerator.RenterDistribution.UNIFORM;
+        double rentedRatio = args.length > 7 ? Double.parseDouble(args[7]) : DataGenerator.DEFAULT_RENTED_RATIO;
+        if (cars <= 0 || threads <= 0 || seconds <= 0 || mix == null) {
+            System.out.println("Cars, threads and seconds must be positive and the mix must have four non-negative weights with a positive sum.");
+            return;
+        }
+
+        PrintStream console = System.out;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("load-driver");
+        try {
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            Path customersFile = dataDirectory.resolve("customers.csv");
+            DataGenerator.writeCustomers(customersFile, customers);
+            DataGenerator.writeCars(carsFile, cars, customers, rentedRatio, distribution, 42L);
+
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long loadStart = System.nanoTime();
+            CarService carService = new CarService(carsFile.toString(), durability);
+            CustomerService customerService = new CustomerService(customersFile.toString(), durability);
+            carService.setCustomerService(customerService);
+            long loadNanos = System.nanoTime() - loadStart;
+
+            console.println("Fleet: " + cars + " cars, " + customers + " customers, "
+                    + Math.round(rentedRatio * 100) + "% rented, " + distribution.name().toLowerCase(Locale.ROOT) + " renters"
+                    + " | loaded in " + String.format("%.1f ms", loadNanos / 1_000_000.0));
+            console.println("Load: " + threads + " threads, " + seconds + " s, mix rent:return:search:add = "
+                    + mix[RENT] + ":" + mix[RETURN] + ":" + mix[SEARCH] + ":" + mix[ADD] + ", durability " + durability);
+
+            long warmupNanos = Math.min(5, Math.max(1, seconds / 3)) * 1_000_000_000L;
+            Worker[] workers = runWorkers(carService, customerService, cars, customers, threads, mix,
+                    distribution, warmupNanos, seconds * 1_000_000_000L);
+
+            carService.close();
+            customerService.close();
+            System.setOut(console);
+            report(workers, seconds);
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static Worker[] runWorkers(CarService carService, CustomerService customerService, int cars, int customers,
+                                       int threads, int[] mix, DataGenerator.RenterDistribution distribution,
+                                       long warmupNanos, long measureNanos) throws Exception {
+        AtomicInteger nextCustomer = new AtomicInteger(customers);
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        Worker[] workers = new Worker[threads];
+        List<Thread> running = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(carService, customerService, cars, customers, mix, distribution, nextCustomer, 1000L + t);
+            workers[t] = worker;
+            running.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                worker.run();
+            }, "load-driver-" + t));
+        }
+        running.forEach(Thread::start);
+
+        long now = System.nanoTime();
+        for (Worker worker : workers) {
+            worker.measureFrom = now + warmupNanos;
+            worker.stopAt = now + warmupNanos + measureNanos;
+        }
+        start.await();
+        for (Thread thread : running) {
+            thread.join();
+        }
+        return workers;
+    }
+
+    private static void report(Worker[] workers, int seconds) {
+        LatencyHistogram[] merged = new LatencyHistogram[OPERATIONS.length];
+        long[] rejected = new long[OPERATIONS.length];
+        LatencyHistogram all = new LatencyHistogram();
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            merged[op] = new LatencyHistogram();
+            for (Worker worker : workers) {
+                merged[op].add(worker.histograms[op]);
+                rejected[op] += worker.rejected[op];
+            }
+            all.add(merged[op]);
+        }
+
+        System.out.println(String.format("%-8s %10s %10s %9s %10s %10s %10s %10s %10s %10s",
+                "op", "count", "ops/s", "rejected", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            printRow(OPERATIONS[op], merged[op], rejected[op], seconds);
+        }
+        long totalRejected = 0;
+        for (long value : rejected) {
+            totalRejected += value;
+        }
+        printRow("total", all, totalRejected, seconds);
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long rejected, int seconds) {
+        StringBuilder row = new StringBuilder(String.format("%-8s %10d %10.0f %9d %10s", name, histogram.getCount(),
+                (double) histogram.getCount() / seconds, rejected, formatNanos(histogram.getMeanNanos())));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %10s", formatNanos(histogram.valueAtPercentile(percentile))));
+        }
+        row.append(String.format(" %10s", formatNanos(histogram.getMaxNanos())));
+        System.out.println(row);
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2f ms", nanos / 1_000_000);
+        }
+        if (nanos >= 1_000) {
+            return String.format("%.1f us", nanos / 1_000);
+        }
+        return String.format("%.0f ns", nanos);
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != OPERATIONS.length) {
+            return null;
+        }
+        int[] mix = new int[parts.length];
+        int sum = 0;
+        for (int i = 0; i < parts.length; i++) {
+            mix[i] = Integer.parseInt(parts[i].trim());
+            if (mix[i] < 0) {
+                return null;
+            }
+            sum += mix[i];
+        }
+        return sum > 0 ? mix : null;
+    }
+
+    private static class Worker {
+        private final CarService carService;
+        private final CustomerService customerService;
+        private final int cars;
+        private final int customers;
+        private final int[] cumulativeMix;
+        private final DataGenerator.RenterDistribution distribution;
+        private final AtomicInteger nextCustomer;
+        private final Random random;
+        private final ArrayDeque<String> rentedByThisWorker = new ArrayDeque<>();
+        private final LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS.length];
+        private final long[] rejected = new long[OPERATIONS.length];
+        private volatile long measureFrom;
+        private volatile long stopAt;
+
+        private Worker(CarService carService, CustomerService customerService, int cars, int customers, int[] mix,
+                       DataGenerator.RenterDistribution distribution, AtomicInteger nextCustomer, long seed) {
+            this.carService = carService;
+            this.customerService = customerService;
+            this.cars = cars;
+            this.customers = customers;
+            this.distribution = distribution;
+            this.nextCustomer = nextCustomer;
+            this.random = new Random(seed);
+            this.cumulativeMix = new int[mix.length];
+            int sum = 0;
+            for (int i = 0; i < mix.length; i++) {
+                sum += mix[i];
+                cumulativeMix[i] = sum;
+            }
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        private void run() {
+            long measuring = measureFrom;
+            long stop = stopAt;
+            boolean recording = false;
+            while (true) {
+                long begin = System.nanoTime();
+                if (begin >= stop) {
+                    return;
+                }
+                if (!recording && begin >= measuring) {
+                    recording = true;
+                    for (int i = 0; i < histograms.length; i++) {
+                        histograms[i].reset();
+                        rejected[i] = 0;
+                    }
+                }
+                int op = nextOperation();
+                boolean accepted = execute(op);
+                histograms[op].record(System.nanoTime() - begin);
+                if (!accepted) {
+                    rejected[op]++;
+                }
+            }
+        }
+
+        private int nextOperation() {
+            int roll = random.nextInt(cumulativeMix[cumulativeMix.length - 1]);
+            int op = 0;
+            while (roll >= cumulativeMix[op]) {
+                op++;
+            }
+            return op;
+        }
+
+        private boolean execute(int op) {
+            switch (op) {
+                case RENT:
+                    return rent();
+                case RETURN:
+                    return returnCar();
+                case SEARCH:
+                    return !carService.searchCars(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]).isEmpty();
+                default:
+                    return addCustomer();
+            }
+        }
+
+        private boolean rent() {
+            String carId = DataGenerator.carId(random.nextInt(cars));
+            Optional<Customer> renter = customers > 0
+                    ? customerService.findCustomerById(DataGenerator.customerId(DataGenerator.pickRenter(random, customers, distribution)))
+                    : Optional.empty();
+            if (renter.isEmpty()) {
+                return false;
+            }
+            Customer customer = renter.get();
+            LocalDate today = LocalDate.now();
+            boolean rented = carService.updateCarStatusAndRentalInfo(carId, CarStatus.RENTED, customer.getId(),
+                    today, today.plusDays(1 + random.nextInt(14)), 20 + random.nextInt(16000) / 100.0);
+            if (rented) {
+                rentedByThisWorker.addLast(carId);
+            }
+            return rented;
+        }
+
+        private boolean returnCar() {
+            String carId = rentedByThisWorker.pollFirst();
+            if (carId == null) {
+                carId = DataGenerator.carId(random.nextInt(cars));
+                Optional<Car> car = carService.findCarById(carId);
+                if (car.isEmpty() || car.get().getStatus() != CarStatus.RENTED) {
+                    return false;
+                }
+            }
+            return carService.updateCarStatusAndRentalInfo(carId, CarStatus.AVAILABLE,
+                    null, null, null, 0.0);
+        }
+
+        private boolean addCustomer() {
+            int id = nextCustomer.getAndIncrement();
+            return customerService.addCustomer(new Customer(DataGenerator.customerId(id), "Load Customer " + id,
+                    "0899" + id, "load" + id + "@example.com"));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CustomerService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class LookupBenchmark {
+
+    private static final int[] DATASET_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int WARMUP_LOOKUPS = 200_000;
+    private static final int MEASURED_LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("--- Lookup latency by dataset size ---");
+        for (int size : DATASET_SIZES) {
+            Path dataDirectory = BenchmarkFiles.createDataDirectory("lookup-bench");
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            Path customersFile = dataDirectory.resolve("customers.csv");
+            try {
+                writeCars(carsFile, size);
+                writeCustomers(customersFile, size);
+
+                CarService carService = new CarService(carsFile.toString());
+                CustomerService customerService = new CustomerService(customersFile.toString());
+
+                double carNanos = measure(size, id -> carService.findCarById(id).isPresent());
+                double customerNanos = measure(size, id -> customerService.findCustomerById(id).isPresent());
+
+                System.out.println("records=" + size
+                        + " | findCarById: " + String.format("%.1f", carNanos) + " ns/op"
+                        + " | findCustomerById: " + String.format("%.1f", customerNanos) + " ns/op");
+            } finally {
+                BenchmarkFiles.deleteRecursively(dataDirectory);
+            }
+        }
+    }
+
+    private static double measure(int size, Lookup lookup) {
+        Random random = new Random(42);
+        String[] keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = String.valueOf(random.nextInt(size));
+        }
+
+        int hits = 0;
+        for (int i = 0; i < WARMUP_LOOKUPS; i++) {
+            if (lookup.find(keys[i & 1023])) {
+                hits++;
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_LOOKUPS; i++) {
+            if (lookup.find(keys[i & 1023])) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (hits == 0) {
+            System.err.println("No lookups hit; benchmark data is inconsistent.");
+        }
+        return (double) elapsed / MEASURED_LOOKUPS;
+    }
+
+    private static void writeCars(Path file, int size) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent");
+            bw.newLine();
+            for (int i = 0; i < size; i++) {
+                bw.write(i + ",Toyota,Corolla," + (2000 + i % 25) + ",Sedan,AVAILABLE,,,,,,,0.00");
+                bw.newLine();
+            }
+        }
+    }
+
+    private static void writeCustomers(Path file, int size) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,name,phone,email");
+            bw.newLine();
+            for (int i = 0; i < size; i++) {
+                bw.write(i + ",Customer " + i + ",0888" + i + ",customer" + i + "@example.com");
+                bw.newLine();
+            }
+        }
+    }
+
+    private interface Lookup {
+        boolean find(String id);
+    }
+}
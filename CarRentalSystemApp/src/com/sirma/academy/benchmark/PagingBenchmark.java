@@ -0,0 +1,214 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CarSortOrder;
+import com.sirma.academy.service.Page;
+import com.sirma.academy.service.PageCursor;
+import com.sirma.academy.service.SortedIndex;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public class PagingBenchmark {
+
+    private static final int DEFAULT_CARS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 200;
+    private static final int MIXED_IDS = 2_000;
+    private static final int ACTIVE_EVERY = 20;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CARS;
+        PrintStream console = System.out;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("paging-bench");
+        try {
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            DataGenerator.writeCars(carsFile, size, Math.max(1, size / 2), 42L);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            CarService carService = new CarService(carsFile.toString());
+            System.setOut(console);
+
+            console.println("--- Paging " + size + " cars, " + PAGE_SIZE + " per page ---");
+            console.println(String.format("%-12s %12s %14s %16s %10s", "order", "index build", "cursor page",
+                    "sort+subList", "complete"));
+            for (CarSortOrder order : CarSortOrder.values()) {
+                long start = System.nanoTime();
+                carService.listCars(order, null, PAGE_SIZE);
+                double buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+                PageCursor cursor = null;
+                start = System.nanoTime();
+                for (int i = 0; i < PAGES; i++) {
+                    cursor = carService.listCars(order, cursor, PAGE_SIZE).getNextCursor();
+                }
+                double cursorMicros = (System.nanoTime() - start) / 1000.0 / PAGES;
+
+                Comparator<Car> comparator = comparatorOf(order);
+                start = System.nanoTime();
+                for (int i = 0; i < 5; i++) {
+                    List<Car> sorted = new ArrayList<>(carService.getAllCars());
+                    sorted.sort(comparator);
+                    sorted.subList(PAGES * PAGE_SIZE, PAGES * PAGE_SIZE + PAGE_SIZE).size();
+                }
+                double sortMicros = (System.nanoTime() - start) / 1000.0 / 5;
+
+                console.println(String.format("%-12s %9.1f ms %11.1f us %13.1f us %10s", order.getLabel(), buildMillis,
+                        cursorMicros, sortMicros, walksWholeFleet(carService, order, comparator, size)));
+            }
+            carService.close();
+            console.println(removedHeavyPaging(dataDirectory.resolve("removed-cars.csv"), size));
+            console.println(mixedIdChurn());
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static String removedHeavyPaging(Path carsFile, int size) throws Exception {
+        DataGenerator.writeCars(carsFile, size, Math.max(1, size / 2), 0.0, DataGenerator.RenterDistribution.UNIFORM, 42L);
+        List<String> lines = Files.readAllLines(carsFile);
+        for (int i = 1; i < lines.size(); i++) {
+            if (i % ACTIVE_EVERY != 0) {
+                lines.set(i, lines.get(i).replace(",AVAILABLE,", ",REMOVE_FROM_AUTO_PARK,"));
+            }
+        }
+        Files.write(carsFile, lines);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        CarService carService = new CarService(carsFile.toString());
+        System.setOut(console);
+        Predicate<Car> active = car -> car.getStatus() != CarStatus.REMOVE_FROM_AUTO_PARK;
+        carService.listCars(CarSortOrder.ID, null, PAGE_SIZE, active);
+        carService.listActiveCars(CarSortOrder.ID, null, PAGE_SIZE);
+
+        PageCursor cursor = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES && (i == 0 || cursor != null); i++) {
+            cursor = carService.listCars(CarSortOrder.ID, cursor, PAGE_SIZE, active).getNextCursor();
+        }
+        double filteredMicros = (System.nanoTime() - start) / 1000.0 / PAGES;
+
+        cursor = null;
+        start = System.nanoTime();
+        for (int i = 0; i < PAGES && (i == 0 || cursor != null); i++) {
+            cursor = carService.listActiveCars(CarSortOrder.ID, cursor, PAGE_SIZE).getNextCursor();
+        }
+        double activeMicros = (System.nanoTime() - start) / 1000.0 / PAGES;
+
+        long expected = carService.getAllCars().stream().filter(active).count();
+        int activeCars = 0;
+        cursor = null;
+        do {
+            Page<Car> page = carService.listActiveCars(CarSortOrder.ID, cursor, 1000);
+            activeCars += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        carService.close();
+        return String.format("%d of %d cars active: filtered page %.1f us | active index page %.1f us | all active paged %s",
+                expected, size, filteredMicros, activeMicros, activeCars == expected);
+    }
+
+    private static String mixedIdChurn() {
+        Random random = new Random(7L);
+        List<String> ids = new ArrayList<>(MIXED_IDS);
+        Set<String> distinct = new HashSet<>();
+        while (ids.size() < MIXED_IDS) {
+            String id = mixedId(random);
+            if (distinct.add(id)) {
+                ids.add(id);
+            }
+        }
+        SortedIndex<String> index = new SortedIndex<>(id -> 0L, id -> null, id -> id);
+        ids.forEach(index::index);
+        int indexed = index.size();
+        boolean ordered = true;
+        String previous = null;
+        for (Iterator<String> it = index.iterator(null); it.hasNext(); ) {
+            String id = it.next();
+            ordered &= previous == null || compareIds(previous, id) < 0;
+            previous = id;
+        }
+        Collections.shuffle(ids, random);
+        ids.forEach(index::remove);
+        int entriesLeft = 0;
+        for (Iterator<String> it = index.iterator(null); it.hasNext(); it.next()) {
+            entriesLeft++;
+        }
+        return String.format("mixed ids: %d indexed, ordered %s, after removing all: %d entries and %d keys left",
+                indexed, ordered, entriesLeft, index.size());
+    }
+
+    private static String mixedId(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return String.valueOf(random.nextInt(5000));
+            case 1:
+                return random.nextInt(100) + "a";
+            case 2:
+                return (random.nextBoolean() ? "BMW" : "bmw") + random.nextInt(50);
+            default:
+                return "0" + random.nextInt(500);
+        }
+    }
+
+    private static boolean walksWholeFleet(CarService carService, CarSortOrder order, Comparator<Car> comparator, int size) {
+        Set<String> seen = new HashSet<>();
+        Car previous = null;
+        PageCursor cursor = null;
+        do {
+            Page<Car> page = carService.listCars(order, cursor, 1000);
+            for (Car car : page.getItems()) {
+                if (!seen.add(car.getId()) || (previous != null && comparator.compare(previous, car) > 0)) {
+                    return false;
+                }
+                previous = car;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen.size() == size;
+    }
+
+    private static Comparator<Car> comparatorOf(CarSortOrder order) {
+        Comparator<Car> byId = Comparator.comparing(Car::getId, PagingBenchmark::compareIds);
+        switch (order) {
+            case MAKE:
+                return Comparator.comparing(Car::getMake, String.CASE_INSENSITIVE_ORDER).thenComparing(byId);
+            case YEAR:
+                return Comparator.comparingInt(Car::getYear).thenComparing(byId);
+            case STATUS:
+                return Comparator.comparing(Car::getStatus).thenComparing(byId);
+            case RETURN_DATE:
+                return Comparator.comparing(Car::getExpectedReturnDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(byId);
+            default:
+                return byId;
+        }
+    }
+
+    private static int compareIds(String left, String right) {
+        boolean leftNumber = !left.isEmpty() && left.chars().allMatch(c -> c >= '0' && c <= '9');
+        boolean rightNumber = !right.isEmpty() && right.chars().allMatch(c -> c >= '0' && c <= '9');
+        if (leftNumber != rightNumber) {
+            return leftNumber ? -1 : 1;
+        }
+        if (leftNumber && left.length() != right.length()) {
+            return Integer.compare(left.length(), right.length());
+        }
+        int ignoringCase = String.CASE_INSENSITIVE_ORDER.compare(left, right);
+        return ignoringCase != 0 ? ignoringCase : left.compareTo(right);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Rental;
+import com.sirma.academy.service.RentalLedger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+public class RentalLedgerBenchmark {
+
+    private static final int DEFAULT_RENTALS = 50_000;
+    private static final int QUERIES = 2_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(1950, 1, 1);
+    private static final int HISTORY_DAYS = 36500;
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RENTALS;
+        PrintStream console = System.out;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("ledger-bench");
+        try {
+            String ledgerFile = dataDirectory.resolve("rentals.csv").toString();
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            RentalLedger ledger = new RentalLedger(ledgerFile);
+            Random random = new Random(42L);
+            ledger.record(new Rental("long-term", "CUS0", FIRST_DAY, null, FIRST_DAY.plusDays(HISTORY_DAYS), 12.5));
+            for (int i = 1; i < size; i++) {
+                LocalDate start = FIRST_DAY.plusDays(random.nextInt(HISTORY_DAYS));
+                LocalDate end = start.plusDays(random.nextInt(14));
+                ledger.record(new Rental(String.valueOf(i), "CUS" + random.nextInt(1000), start, end, end,
+                        20 + random.nextInt(16000) / 100.0));
+            }
+            ledger.close();
+            RentalLedger reloaded = new RentalLedger(ledgerFile);
+            System.setOut(console);
+
+            console.println("--- " + size + " rentals, one spanning the whole history ---");
+            console.println("indexed after restart: " + reloaded.size());
+
+            List<Rental> all = reloaded.findOverlapping(FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(HISTORY_DAYS + 30));
+            int mismatches = 0;
+            long matches = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                LocalDate from = FIRST_DAY.plusDays(random.nextInt(HISTORY_DAYS));
+                LocalDate to = from.plusDays(random.nextInt(7));
+                int found = reloaded.findOverlapping(from, to).size();
+                matches += found;
+                if (i < 50 && found != bruteForce(all, from, to)) {
+                    mismatches++;
+                }
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+            console.println(String.format("overlap query: %.1f us/query, %.1f rentals/query, %d mismatches vs full scan",
+                    micros, (double) matches / QUERIES, mismatches));
+            reloaded.close();
+        } finally {
+            System.setOut(console);
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static int bruteForce(List<Rental> rentals, LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Rental rental : rentals) {
+            if (!rental.getRentalStartDate().isAfter(to) && !rental.getActualReturnDate().isBefore(from)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarJdbcMapping;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.ConnectionPool;
+import com.sirma.academy.service.JdbcRepository;
+import com.sirma.academy.service.RentalLedger;
+import com.sirma.academy.service.ReservationCalendar;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class RepositoryBenchmark {
+
+    private static final int DEFAULT_CARS = 100_000;
+    private static final int STATUS_UPDATES = 500;
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: RepositoryBenchmark <jdbcUrl> [cars]");
+            System.out.println("The JDBC driver (e.g. H2 or SQLite) must be on the classpath.");
+            return;
+        }
+        String jdbcUrl = args[0];
+        int cars = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CARS;
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("repository-bench");
+        ConnectionPool pool = new ConnectionPool(jdbcUrl);
+        try {
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            int customers = Math.max(1, cars / 2);
+            DataGenerator.writeCars(carsFile, cars, customers, 42L);
+            CONSOLE.println("--- CSV journal vs " + jdbcUrl + " with " + cars + " cars ---");
+
+            System.setOut(DISCARD);
+            CarService csvService = time("CSV load", () -> new CarService(carsFile.toString()));
+            JdbcRepository<Car> jdbcRepository = new JdbcRepository<>(pool, new CarJdbcMapping());
+            List<Car> fleet = csvService.getAllCars();
+            time("JDBC bulk import (batched)", () -> jdbcRepository.compact(fleet));
+            CarService jdbcService = time("JDBC load", () -> new CarService(jdbcRepository,
+                    new RentalLedger(dataDirectory.resolve("jdbc-rentals.csv").toString()),
+                    new ReservationCalendar(dataDirectory.resolve("jdbc-reservations.csv").toString())));
+
+            rentAndReturn("CSV", csvService);
+            rentAndReturn("JDBC", jdbcService);
+
+            time("CSV full save (compaction)", csvService::compact);
+            time("JDBC full save (table rewrite)", () -> jdbcRepository.compact(jdbcService.getAllCars()));
+
+            int inMemory = time("In-memory findByStatus(RENTED)", () -> csvService.findByStatus(CarStatus.RENTED)).size();
+            int indexed = time("JDBC indexed query status = RENTED",
+                    () -> jdbcRepository.findBy(CarJdbcMapping.STATUS_COLUMN, CarStatus.RENTED.name())).size();
+            CONSOLE.println("rented cars: in memory " + inMemory + ", database " + indexed);
+
+            csvService.close();
+            jdbcService.close();
+        } finally {
+            System.setOut(CONSOLE);
+            pool.close();
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static void rentAndReturn(String backend, CarService carService) {
+        List<Car> available = carService.findByStatus(CarStatus.AVAILABLE);
+        int updates = Math.min(STATUS_UPDATES, available.size());
+        LocalDate today = LocalDate.now();
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            String carId = available.get(i).getId();
+            carService.updateCarStatusAndRentalInfo(carId, CarStatus.RENTED, "CUS0", today, today.plusDays(3), 45.0);
+            carService.updateCarStatusAndRentalInfo(carId, CarStatus.AVAILABLE, null, null, null, 0.0);
+        }
+        long elapsed = System.nanoTime() - start;
+        CONSOLE.println(String.format("%-36s %10.1f us/update", backend + " rent+return", elapsed / 1000.0 / (updates * 2)));
+    }
+
+    private static <T> T time(String name, Supplier<T> operation) {
+        long start = System.nanoTime();
+        T result = operation.get();
+        CONSOLE.println(String.format("%-36s %10.1f ms", name, (System.nanoTime() - start) / 1_000_000.0));
+        return result;
+    }
+}
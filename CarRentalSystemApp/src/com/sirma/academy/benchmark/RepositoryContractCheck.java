@@ -0,0 +1,186 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.Customer;
+import com.sirma.academy.service.CarJdbcMapping;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.ConnectionPool;
+import com.sirma.academy.service.CustomerJdbcMapping;
+import com.sirma.academy.service.CustomerService;
+import com.sirma.academy.service.Durability;
+import com.sirma.academy.service.JdbcRepository;
+import com.sirma.academy.service.Repository;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class RepositoryContractCheck {
+
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+    private static final String UNREACHABLE_URL = "jdbc:unreachable:none";
+
+    public static void main(String[] args) throws Exception {
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("repository-contract");
+        ConnectionPool pool = args.length > 0 ? new ConnectionPool(args[0]) : null;
+        List<String> failures = new ArrayList<>();
+        try {
+            System.setOut(DISCARD);
+            String carsFile = dataDirectory.resolve("cars.csv").toString();
+            String customersFile = dataDirectory.resolve("customers.csv").toString();
+            checkCars("csv", () -> CarService.csvRepository(carsFile, Durability.SYNCHRONOUS), failures);
+            checkCustomers("csv", () -> CustomerService.csvRepository(customersFile, Durability.SYNCHRONOUS), failures);
+            if (pool != null) {
+                checkCars("jdbc", () -> new JdbcRepository<>(pool, new CarJdbcMapping()), failures);
+                checkCustomers("jdbc", () -> new JdbcRepository<>(pool, new CustomerJdbcMapping()), failures);
+            }
+            checkUnreachableDatabase(failures);
+        } finally {
+            System.setOut(CONSOLE);
+            if (pool != null) {
+                pool.close();
+            }
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+
+        String backends = pool != null ? "CSV and JDBC" : "CSV (pass a JDBC URL to check JDBC too)";
+        if (failures.isEmpty()) {
+            CONSOLE.println("PASSED: " + backends + " repositories honour the same contract.");
+        } else {
+            failures.forEach(CONSOLE::println);
+            CONSOLE.println("FAILED: " + failures.size() + " contract violations.");
+            System.exit(1);
+        }
+    }
+
+    private static void checkCars(String backend, Supplier<Repository<Car>> opener, List<String> failures) {
+        LocalDate start = LocalDate.of(2024, 2, 29);
+        Car rented = new Car("1", "BMW", "X5", 2021, "SUV", CarStatus.RENTED, "CUS7", start, start.plusDays(5), 55.5);
+        Car available = new Car("BMW", "Audi", "A4", 2019, "Sedan", CarStatus.AVAILABLE, null, null, null, 0.0);
+        Car renamed = new Car("1", "BMW", "X6", 2022, "SUV", CarStatus.AVAILABLE, null, null, null, 0.0);
+        Car replacement = new Car("10", "Opel", "Astra", 2015, "Hatchback", CarStatus.AVAILABLE, null, null, null, 0.0);
+        new ContractRun<>(backend + " cars", opener, RepositoryContractCheck::describe, failures)
+                .run(rented, available, renamed, replacement);
+    }
+
+    private static void checkCustomers(String backend, Supplier<Repository<Customer>> opener, List<String> failures) {
+        Customer first = new Customer("1", "Ivan Petrov", "+359 888 123 456", "ivan@example.com");
+        Customer second = new Customer("CUS2", "Maria, \"Mimi\" Ivanova", "0888", "maria@example.com");
+        Customer renamed = new Customer("1", "Ivan Georgiev", "0899", "ivan.g@example.com");
+        Customer replacement = new Customer("10", "Petar Petrov", "0877", "petar@example.com");
+        new ContractRun<>(backend + " customers", opener, RepositoryContractCheck::describe, failures)
+                .run(first, second, renamed, replacement);
+    }
+
+    private static void checkUnreachableDatabase(List<String> failures) {
+        ConnectionPool pool = new ConnectionPool(UNREACHABLE_URL);
+        try {
+            Repository<Car> repository = new JdbcRepository<>(pool, new CarJdbcMapping());
+            List<Car> cars = repository.loadAll();
+            failures.add("jdbc: loading from " + UNREACHABLE_URL + " returned " + cars.size() + " cars instead of failing.");
+        } catch (IllegalStateException e) {
+            return;
+        } finally {
+            pool.close();
+        }
+    }
+
+    private static String describe(Car car) {
+        return String.join("|", car.getId(), car.getMake(), car.getModel(), String.valueOf(car.getYear()), car.getType(),
+                String.valueOf(car.getStatus()), String.valueOf(car.getCurrentRenterId()),
+                String.valueOf(car.getRentalStartDate()), String.valueOf(car.getExpectedReturnDate()),
+                String.valueOf(car.getDailyRate()));
+    }
+
+    private static String describe(Customer customer) {
+        return String.join("|", customer.getId(), customer.getName(), customer.getPhoneNumber(), customer.getEmail());
+    }
+
+    private static class ContractRun<T> {
+        private final String name;
+        private final Supplier<Repository<T>> opener;
+        private final Function<T, String> describer;
+        private final List<String> failures;
+
+        ContractRun(String name, Supplier<Repository<T>> opener, Function<T, String> describer, List<String> failures) {
+            this.name = name;
+            this.opener = opener;
+            this.describer = describer;
+            this.failures = failures;
+        }
+
+        void run(T first, T second, T updatedFirst, T replacement) {
+            Repository<T> repository = opener.get();
+            expect("fresh store", repository, new ArrayList<>());
+
+            check("save", repository, repository.save(first));
+            repository = reopen(repository);
+            expect("save then reopen", repository, Arrays.asList(first));
+
+            check("saveAll", repository, repository.saveAll(Arrays.asList(updatedFirst, second)));
+            repository = reopen(repository);
+            expect("saveAll overwrites by id", repository, Arrays.asList(updatedFirst, second));
+
+            check("delete", repository, repository.delete(idOf(second)));
+            repository = reopen(repository);
+            expect("delete then reopen", repository, Arrays.asList(updatedFirst));
+
+            if (!repository.compact(Arrays.asList(second, replacement))) {
+                failures.add(name + ": compact reported failure.");
+            }
+            repository = reopen(repository);
+            expect("compact replaces contents", repository, Arrays.asList(second, replacement));
+
+            check("delete missing id", repository, repository.delete("missing"));
+            repository = reopen(repository);
+            expect("delete missing id", repository, Arrays.asList(second, replacement));
+            repository.compact(new ArrayList<>());
+            repository.close();
+        }
+
+        private void check(String step, Repository<T> repository, CompletableFuture<Boolean> write) {
+            if (!repository.await(write)) {
+                failures.add(name + ": " + step + " reported failure.");
+            }
+        }
+
+        private Repository<T> reopen(Repository<T> repository) {
+            repository.flush();
+            repository.close();
+            return opener.get();
+        }
+
+        private void expect(String step, Repository<T> repository, List<T> expected) {
+            List<T> loaded = repository.loadAll();
+            Map<String, String> actual = byId(loaded);
+            Map<String, String> wanted = byId(expected);
+            if (loaded.size() != expected.size() || !actual.equals(wanted)) {
+                failures.add(name + ": " + step + " expected " + wanted.values() + " but loaded " + actual.values());
+            }
+        }
+
+        private Map<String, String> byId(List<T> items) {
+            Map<String, String> described = new TreeMap<>();
+            for (T item : items) {
+                described.put(idOf(item), describer.apply(item));
+            }
+            return described;
+        }
+
+        private String idOf(T item) {
+            String description = describer.apply(item);
+            return description.substring(0, description.indexOf('|'));
+        }
+    }
+}
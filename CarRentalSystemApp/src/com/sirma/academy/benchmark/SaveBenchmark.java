@@ -0,0 +1,146 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CsvFormatter;
+import com.sirma.academy.service.CsvWriter;
+import com.sirma.academy.service.FileService;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class SaveBenchmark {
+
+    private static final int[] FLEET_SIZES = {100_000, 1_000_000};
+    private static final int WARMUP_SAVES = 2;
+    private static final int MEASURED_SAVES = 5;
+    private static final String CSV_HEADER = "id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent";
+
+    private static final Function<Car, String> LEGACY_FORMATTER = car ->
+            car.getId() + "," +
+                    car.getMake() + "," +
+                    car.getModel() + "," +
+                    car.getYear() + "," +
+                    car.getType() + "," +
+                    car.getStatus().name() + "," +
+                    (car.getCurrentRenterId() != null ? car.getCurrentRenterId() : "") + ",,,," +
+                    (car.getRentalStartDate() != null ? car.getRentalStartDate().toString() : "") + "," +
+                    (car.getExpectedReturnDate() != null ? car.getExpectedReturnDate().toString() : "") + "," +
+                    (car.getDailyRate() != 0.0 ? String.format("%.2f", car.getDailyRate()) : "0.00");
+
+    static final CsvFormatter<Car> CSV_FORMATTER = (car, out) -> {
+        out.writeField(car.getId());
+        out.writeField(car.getMake());
+        out.writeField(car.getModel());
+        out.writeInt(car.getYear());
+        out.writeField(car.getType());
+        out.writeEnum(car.getStatus());
+        out.writeField(car.getCurrentRenterId());
+        out.writeField(null);
+        out.writeField(null);
+        out.writeField(null);
+        out.writeDate(car.getRentalStartDate());
+        out.writeDate(car.getExpectedReturnDate());
+        out.writeMoney(car.getDailyRate());
+    };
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("--- Full-fleet save throughput ---");
+        for (int size : FLEET_SIZES) {
+            Path dataDirectory = BenchmarkFiles.createDataDirectory("save-bench");
+            try {
+                List<Car> cars = generateCars(size);
+                String file = dataDirectory.resolve("cars.csv").toString();
+                FileService fileService = new FileService(true);
+
+                double legacyMillis = measure(() -> saveLegacy(file, cars));
+                long legacyBytes = Files.size(dataDirectory.resolve("cars.csv"));
+                double stringMillis = measure(() -> fileService.saveData(file, CSV_HEADER, cars, LEGACY_FORMATTER));
+                double csvWriterMillis = measure(() -> fileService.saveData(file, CSV_HEADER, cars, CSV_FORMATTER));
+                long bytes = Files.size(dataDirectory.resolve("cars.csv"));
+
+                double legacyFormatMillis = measure(() -> {
+                    long length = 0;
+                    for (Car car : cars) {
+                        length += LEGACY_FORMATTER.apply(car).length();
+                    }
+                    return length > 0;
+                });
+                double csvWriterFormatMillis = measure(() -> {
+                    long length = 0;
+                    for (Car car : cars) {
+                        length += CsvWriter.formatRecord(CSV_FORMATTER, car).length();
+                    }
+                    return length > 0;
+                });
+
+                System.out.println("cars=" + size);
+                System.out.println("  format to String: concat/String.format " + String.format("%.1f ms", legacyFormatMillis)
+                        + " | CsvWriter " + String.format("%.1f ms", csvWriterFormatMillis));
+                System.out.println("  save: legacy BufferedWriter without fsync " + report(legacyMillis, legacyBytes)
+                        + " | atomic save with concat formatter " + report(stringMillis, bytes)
+                        + " | atomic save with CsvWriter " + report(csvWriterMillis, bytes));
+            } finally {
+                BenchmarkFiles.deleteRecursively(dataDirectory);
+            }
+        }
+    }
+
+    private static boolean saveLegacy(String file, List<Car> cars) {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+            bw.write(CSV_HEADER);
+            bw.newLine();
+            for (Car car : cars) {
+                bw.write(LEGACY_FORMATTER.apply(car));
+                bw.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Legacy save failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static double measure(Save save) {
+        for (int i = 0; i < WARMUP_SAVES; i++) {
+            save.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_SAVES; i++) {
+            if (!save.run()) {
+                System.err.println("Save failed during measurement.");
+            }
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_SAVES;
+    }
+
+    private static String report(double millis, long bytes) {
+        return String.format("%.1f ms (%.0f MB/s)", millis, bytes / 1024.0 / 1024.0 / (millis / 1000.0));
+    }
+
+    private static List<Car> generateCars(int size) {
+        List<Car> cars = new ArrayList<>(size);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            if (i % 3 == 0) {
+                cars.add(new Car(String.valueOf(i), "Toyota", "Corolla", 2000 + i % 25, "Sedan", CarStatus.RENTED,
+                        "c" + i, today.minusDays(i % 7), today.plusDays(i % 11), 25.0 + (i % 400) / 8.0));
+            } else {
+                cars.add(new Car(String.valueOf(i), "Skoda", "Octavia", 2000 + i % 25, "Wagon", CarStatus.AVAILABLE,
+                        null, null, null, 0.0));
+            }
+        }
+        return cars;
+    }
+
+    private interface Save {
+        boolean run();
+    }
+}
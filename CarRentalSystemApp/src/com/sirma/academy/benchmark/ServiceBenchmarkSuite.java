@@ -0,0 +1,155 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.Customer;
+import com.sirma.academy.model.StringDictionary;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.CsvRecord;
+import com.sirma.academy.service.CustomerService;
+import com.sirma.academy.service.FileService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+public class ServiceBenchmarkSuite {
+
+    private static final int[] DEFAULT_SIZES = {1_000, 100_000, 1_000_000};
+    private static final CarStatus[] CAR_STATUSES = CarStatus.values();
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    static final Function<CsvRecord, Car> CAR_PARSER = record -> new Car(
+            record.field(0), record.internedField(1, StringDictionary.MAKES), record.internedField(2, StringDictionary.MODELS),
+            record.intField(3), record.internedField(4, StringDictionary.TYPES),
+            record.enumField(5, CAR_STATUSES),
+            record.isEmpty(6) ? null : record.field(6),
+            record.isEmpty(10) ? null : record.dateField(10),
+            record.isEmpty(11) ? null : record.dateField(11),
+            record.isEmpty(12) ? 0.0 : record.doubleField(12));
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0 ? parseSizes(args[0]) : DEFAULT_SIZES;
+        CONSOLE.println(String.format("%-42s %10s %16s %16s", "benchmark", "records", "score", "error"));
+        for (int size : sizes) {
+            Path dataDirectory = BenchmarkFiles.createDataDirectory("service-bench");
+            try {
+                runSuite(dataDirectory, size);
+            } catch (OutOfMemoryError e) {
+                System.setOut(CONSOLE);
+                CONSOLE.println("records=" + size + ": out of memory with a max heap of "
+                        + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB; rerun with a larger -Xmx.");
+            } finally {
+                System.setOut(CONSOLE);
+                BenchmarkFiles.deleteRecursively(dataDirectory);
+            }
+        }
+    }
+
+    private static void runSuite(Path dataDirectory, int size) throws IOException {
+        Path carsFile = dataDirectory.resolve("cars.csv");
+        Path customersFile = dataDirectory.resolve("customers.csv");
+        int customers = Math.max(1, size / 2);
+        DataGenerator.writeCustomers(customersFile, customers);
+        DataGenerator.writeCars(carsFile, size, customers, 42L);
+
+        FileService fileService = new FileService(true);
+        int fileIterations = size >= 1_000_000 ? 3 : 10;
+        List<Car> loaded = fileService.loadData(carsFile.toString(), CAR_PARSER);
+        run("FileService.loadData", size, fileIterations, 1,
+                i -> fileService.loadData(carsFile.toString(), CAR_PARSER));
+        Path saveFile = dataDirectory.resolve("save.csv");
+        run("FileService.saveData", size, fileIterations, 1,
+                i -> fileService.saveData(saveFile.toString(), DataGenerator.CARS_HEADER, loaded, SaveBenchmark.CSV_FORMATTER));
+
+        System.setOut(DISCARD);
+        CarService carService = new CarService(carsFile.toString());
+        CustomerService customerService = new CustomerService(customersFile.toString());
+        carService.setCustomerService(customerService);
+
+        run("CarService.findCarById", size, 10, 100_000,
+                i -> carService.findCarById(DataGenerator.carId((int) ((i * 2_654_435_761L) % size))));
+        String[] searchTerms = {"Octavia", "Golf", "customer12", "RAV4", "Countryman"};
+        run("CarService.searchCars", size, 10, 20,
+                i -> carService.searchCars(searchTerms[i % searchTerms.length]));
+
+        List<Car> available = carService.findByStatus(CarStatus.AVAILABLE);
+        int updates = Math.min(available.size(), 500);
+        run("CarService.updateCarStatus (rent+return)", size, 5, updates, i -> {
+            String carId = available.get(i % updates).getId();
+            carService.updateCarStatusAndRentalInfo(carId, CarStatus.RENTED, "CUS0", LocalDate.now(), LocalDate.now().plusDays(3), 45.0);
+            carService.updateCarStatusAndRentalInfo(carId, CarStatus.AVAILABLE, null, null, null, 0.0);
+        });
+
+        int[] nextCustomer = {customers};
+        run("CustomerService.addCustomer", size, 5, 500, i -> {
+            int id = nextCustomer[0]++;
+            customerService.addCustomer(new Customer(DataGenerator.customerId(id), "Bench Customer " + id,
+                    "0899" + id, "bench" + id + "@example.com"));
+        });
+
+        carService.close();
+        customerService.close();
+        System.setOut(CONSOLE);
+    }
+
+    private static void run(String name, int size, int iterations, int operationsPerIteration, Operation operation) {
+        int warmups = Math.max(1, iterations / 3);
+        int counter = 0;
+        for (int w = 0; w < warmups; w++) {
+            for (int op = 0; op < operationsPerIteration; op++) {
+                operation.run(counter++);
+            }
+        }
+
+        double[] nanosPerOperation = new double[iterations];
+        for (int it = 0; it < iterations; it++) {
+            long start = System.nanoTime();
+            for (int op = 0; op < operationsPerIteration; op++) {
+                operation.run(counter++);
+            }
+            nanosPerOperation[it] = (double) (System.nanoTime() - start) / operationsPerIteration;
+        }
+
+        double mean = 0;
+        for (double value : nanosPerOperation) {
+            mean += value;
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double value : nanosPerOperation) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+
+        CONSOLE.println(String.format("%-42s %10d %16s %16s", name, size, formatNanos(mean), "+- " + formatNanos(error)));
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2f ms/op", nanos / 1_000_000);
+        }
+        if (nanos >= 1_000) {
+            return String.format("%.2f us/op", nanos / 1_000);
+        }
+        return String.format("%.1f ns/op", nanos);
+    }
+
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    private interface Operation {
+        void run(int index);
+    }
+}
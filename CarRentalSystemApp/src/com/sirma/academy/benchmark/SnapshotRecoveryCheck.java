@@ -0,0 +1,139 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.Durability;
+import com.sirma.academy.service.Repository;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SnapshotRecoveryCheck {
+
+    private static final PrintStream CONSOLE = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+    private static final int CARS = 50;
+
+    public static void main(String[] args) throws Exception {
+        List<String> failures = new ArrayList<>();
+        System.setOut(DISCARD);
+        System.setErr(DISCARD);
+        try {
+            checkCorruptGeneration(failures);
+            checkFailedBinarySnapshot(failures);
+        } finally {
+            System.setOut(CONSOLE);
+            System.setErr(CONSOLE);
+        }
+
+        if (failures.isEmpty()) {
+            CONSOLE.println("PASSED: corrupt or half-written snapshot generations lose no journaled changes.");
+        } else {
+            failures.forEach(CONSOLE::println);
+            CONSOLE.println("FAILED: " + failures.size() + " recovery violations.");
+            System.exit(1);
+        }
+    }
+
+    private static void checkCorruptGeneration(List<String> failures) throws Exception {
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("recovery-corrupt");
+        try {
+            String carsFile = dataDirectory.resolve("cars.csv").toString();
+            Map<String, String> expected = new TreeMap<>();
+            Repository<Car> repository = CarService.csvRepository(carsFile, Durability.SYNCHRONOUS);
+            List<Car> fleet = new ArrayList<>();
+            for (int i = 0; i < CARS; i++) {
+                fleet.add(car(i, 2000));
+            }
+            repository.compact(fleet);
+            write(repository, fleet, 2010, expected);
+            repository.compact(fleet);
+            write(repository, fleet.subList(0, CARS / 2), 2020, expected);
+            repository.close();
+
+            corrupt(dataDirectory.resolve("cars.csv"));
+            Files.deleteIfExists(dataDirectory.resolve("cars.csv.bin"));
+            compare("corrupt newest generation", expected, carsFile, failures);
+        } finally {
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static void checkFailedBinarySnapshot(List<String> failures) throws Exception {
+        Path dataDirectory = BenchmarkFiles.createDataDirectory("recovery-binary");
+        try {
+            String carsFile = dataDirectory.resolve("cars.csv").toString();
+            Map<String, String> expected = new TreeMap<>();
+            Repository<Car> repository = CarService.csvRepository(carsFile, Durability.SYNCHRONOUS);
+            List<Car> fleet = new ArrayList<>();
+            for (int i = 0; i < CARS; i++) {
+                fleet.add(car(i, 2000));
+            }
+            write(repository, fleet, 2005, expected);
+            Path blocker = Files.createDirectories(dataDirectory.resolve("cars.csv.bin").resolve("blocked"));
+            if (repository.compact(fleet)) {
+                failures.add("failed binary snapshot: compact reported success.");
+            }
+            if (!Files.exists(dataDirectory.resolve("cars.csv.journal"))) {
+                failures.add("failed binary snapshot: the journal was cleared.");
+            }
+            repository.close();
+            Files.delete(blocker);
+            Files.delete(blocker.getParent());
+
+            corrupt(dataDirectory.resolve("cars.csv"));
+            compare("failed binary snapshot", expected, carsFile, failures);
+        } finally {
+            BenchmarkFiles.deleteRecursively(dataDirectory);
+        }
+    }
+
+    private static void write(Repository<Car> repository, List<Car> cars, int year, Map<String, String> expected) {
+        for (Car car : cars) {
+            car.setYear(year);
+            repository.await(repository.save(car));
+            expected.put(car.getId(), describe(car));
+        }
+    }
+
+    private static void compare(String scenario, Map<String, String> expected, String carsFile, List<String> failures) {
+        Repository<Car> reopened = CarService.csvRepository(carsFile, Durability.SYNCHRONOUS);
+        Map<String, String> actual = new TreeMap<>();
+        for (Car car : reopened.loadAll()) {
+            actual.put(car.getId(), describe(car));
+        }
+        reopened.close();
+        if (!actual.equals(expected)) {
+            int lost = 0;
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                lost += entry.getValue().equals(actual.get(entry.getKey())) ? 0 : 1;
+            }
+            failures.add(scenario + ": " + lost + " of " + expected.size() + " cars came back wrong after recovery.");
+        }
+    }
+
+    private static void corrupt(Path file) throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() / 2);
+            int value = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(value ^ 0x20);
+        }
+    }
+
+    private static Car car(int index, int year) {
+        return new Car(String.valueOf(index), "Skoda", "Octavia", year, "Sedan", CarStatus.AVAILABLE, null, null, null, 0.0);
+    }
+
+    private static String describe(Car car) {
+        return car.getId() + "|" + car.getYear() + "|" + car.getStatus();
+    }
+}
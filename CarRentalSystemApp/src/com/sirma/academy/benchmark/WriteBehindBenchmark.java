@@ -0,0 +1,110 @@
+package com.sirma.academy.benchmark;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.service.CarService;
+import com.sirma.academy.service.Durability;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+public class WriteBehindBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int CARS_PER_THREAD = 250;
+    private static final int ROUNDS = 4;
+
+    public static void main(String[] args) throws Exception {
+        PrintStream console = System.out;
+        console.println("--- Concurrent rent/return throughput by durability level ---");
+        for (Durability durability : Durability.values()) {
+            Path dataDirectory = BenchmarkFiles.createDataDirectory("write-behind-bench");
+            Path carsFile = dataDirectory.resolve("cars.csv");
+            try {
+                writeCars(carsFile);
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                CarService carService = new CarService(carsFile.toString(), durability);
+
+                long start = System.nanoTime();
+                runConcurrently(thread -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = 0; i < CARS_PER_THREAD; i++) {
+                            String carId = String.valueOf(thread * CARS_PER_THREAD + i);
+                            carService.updateCarStatusAndRentalInfo(carId, CarStatus.RENTED,
+                                    "renter-" + thread, LocalDate.now(), LocalDate.now().plusDays(2), 30.0);
+                        }
+                        for (int i = 0; i < CARS_PER_THREAD; i++) {
+                            String carId = String.valueOf(thread * CARS_PER_THREAD + i);
+                            carService.updateCarStatusAndRentalInfo(carId, CarStatus.AVAILABLE,
+                                    null, null, null, 0.0);
+                        }
+                    }
+                });
+                carService.flush();
+                long elapsed = System.nanoTime() - start;
+                carService.close();
+
+                int mismatches = 0;
+                CarService reloaded = new CarService(carsFile.toString());
+                for (Car car : carService.getAllCars()) {
+                    Car persisted = reloaded.findCarById(car.getId()).orElse(null);
+                    if (persisted == null || persisted.getStatus() != car.getStatus()) {
+                        mismatches++;
+                    }
+                }
+                System.setOut(console);
+
+                int operations = THREADS * CARS_PER_THREAD * ROUNDS * 2;
+                console.println(durability + ": " + String.format("%.0f", operations / (elapsed / 1_000_000_000.0)) + " updates/s"
+                        + " | " + String.format("%.1f", elapsed / 1000.0 / operations) + " us/update"
+                        + (mismatches == 0 ? "" : " | " + mismatches + " cars not persisted consistently"));
+            } finally {
+                System.setOut(console);
+                BenchmarkFiles.deleteRecursively(dataDirectory);
+            }
+        }
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(thread);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void writeCars(Path file) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(file)) {
+            bw.write("id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent");
+            bw.newLine();
+            for (int i = 0; i < THREADS * CARS_PER_THREAD; i++) {
+                bw.write(i + ",Toyota,Corolla,2020,Sedan,AVAILABLE,,,,,,,0.00");
+                bw.newLine();
+            }
+        }
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+}
@@ -1,6 +1,9 @@
 package com.sirma.academy.model;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 public class Car implements Rentable, Searchable {
     private String id;
@@ -8,32 +11,32 @@ public class Car implements Rentable, Searchable {
     private String model;
     private int year;
     private String type;
+    private int makeCode = StringDictionary.NO_CODE;
+    private int modelCode = StringDictionary.NO_CODE;
+    private int typeCode = StringDictionary.NO_CODE;
     private CarStatus status;
     private String currentRenterId;
-    private String currentRenterName;
-    private String currentRenterPhone;
-    private String currentRenterEmail;
     private LocalDate rentalStartDate;
     private LocalDate expectedReturnDate;
     private double dailyRate;
+    private boolean dirty;
 
     public Car() {
     }
 
     public Car(String id, String make, String model, int year, String type, CarStatus status,
-               String currentRenterId, String currentRenterName, String currentRenterPhone,
-               String currentRenterEmail, LocalDate rentalStartDate, LocalDate expectedReturnDate,
+               String currentRenterId, LocalDate rentalStartDate, LocalDate expectedReturnDate,
                double dailyRate) {
         this.id = id;
-        this.make = make;
-        this.model = model;
+        this.make = StringDictionary.MAKES.intern(make);
+        this.makeCode = StringDictionary.MAKES.codeOf(this.make);
+        this.model = StringDictionary.MODELS.intern(model);
+        this.modelCode = StringDictionary.MODELS.codeOf(this.model);
         this.year = year;
-        this.type = type;
+        this.type = StringDictionary.TYPES.intern(type);
+        this.typeCode = StringDictionary.TYPES.keyCodeOf(StringDictionary.TYPES.codeOf(this.type));
         this.status = status;
         this.currentRenterId = currentRenterId;
-        this.currentRenterName = currentRenterName;
-        this.currentRenterPhone = currentRenterPhone;
-        this.currentRenterEmail = currentRenterEmail;
         this.rentalStartDate = rentalStartDate;
         this.expectedReturnDate = expectedReturnDate;
         this.dailyRate = dailyRate;
@@ -59,24 +62,24 @@ public class Car implements Rentable, Searchable {
         return type;
     }
 
-    public CarStatus getStatus() {
-        return status;
+    public int getMakeCode() {
+        return makeCode;
     }
 
-    public String getCurrentRenterId() {
-        return currentRenterId;
+    public int getModelCode() {
+        return modelCode;
     }
 
-    public String getCurrentRenterName() {
-        return currentRenterName;
+    public int getTypeCode() {
+        return typeCode;
     }
 
-    public String getCurrentRenterPhone() {
-        return currentRenterPhone;
+    public CarStatus getStatus() {
+        return status;
     }
 
-    public String getCurrentRenterEmail() {
-        return currentRenterEmail;
+    public String getCurrentRenterId() {
+        return currentRenterId;
     }
 
     public LocalDate getRentalStartDate() {
@@ -92,81 +95,113 @@ public class Car implements Rentable, Searchable {
     }
 
     public void setId(String id) {
+        dirty |= !Objects.equals(this.id, id);
         this.id = id;
     }
 
     public void setMake(String make) {
-        this.make = make;
+        String canonical = StringDictionary.MAKES.intern(make);
+        int code = StringDictionary.MAKES.codeOf(canonical);
+        dirty |= this.makeCode != code;
+        this.make = canonical;
+        this.makeCode = code;
     }
 
     public void setModel(String model) {
-        this.model = model;
+        String canonical = StringDictionary.MODELS.intern(model);
+        int code = StringDictionary.MODELS.codeOf(canonical);
+        dirty |= this.modelCode != code;
+        this.model = canonical;
+        this.modelCode = code;
     }
 
     public void setYear(int year) {
+        dirty |= this.year != year;
         this.year = year;
     }
 
     public void setType(String type) {
-        this.type = type;
+        String canonical = StringDictionary.TYPES.intern(type);
+        dirty |= !Objects.equals(this.type, canonical);
+        this.type = canonical;
+        this.typeCode = StringDictionary.TYPES.keyCodeOf(StringDictionary.TYPES.codeOf(canonical));
     }
 
     public void setStatus(CarStatus status) {
+        dirty |= !Objects.equals(this.status, status);
         this.status = status;
     }
 
     public void setCurrentRenterId(String currentRenterId) {
+        dirty |= !Objects.equals(this.currentRenterId, currentRenterId);
         this.currentRenterId = currentRenterId;
     }
 
-    public void setCurrentRenterName(String currentRenterName) {
-        this.currentRenterName = currentRenterName;
-    }
-
-    public void setCurrentRenterPhone(String currentRenterPhone) {
-        this.currentRenterPhone = currentRenterPhone;
-    }
-
-    public void setCurrentRenterEmail(String currentRenterEmail) {
-        this.currentRenterEmail = currentRenterEmail;
-    }
-
     public void setRentalStartDate(LocalDate rentalStartDate) {
+        dirty |= !Objects.equals(this.rentalStartDate, rentalStartDate);
         this.rentalStartDate = rentalStartDate;
     }
 
     public void setExpectedReturnDate(LocalDate expectedReturnDate) {
+        dirty |= !Objects.equals(this.expectedReturnDate, expectedReturnDate);
         this.expectedReturnDate = expectedReturnDate;
     }
 
     public void setDailyRate(double dailyRate) {
+        dirty |= Double.compare(this.dailyRate, dailyRate) != 0;
         this.dailyRate = dailyRate;
     }
 
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markClean() {
+        this.dirty = false;
+    }
+
     @Override
     public boolean matches(String criteria) {
         String lowerCaseCriteria = criteria.toLowerCase();
-        return this.id.toLowerCase().contains(lowerCaseCriteria) ||
-                this.make.toLowerCase().contains(lowerCaseCriteria) ||
-                this.model.toLowerCase().contains(lowerCaseCriteria) ||
-                this.type.toLowerCase().contains(lowerCaseCriteria) ||
-                (this.currentRenterId != null && this.currentRenterId.toLowerCase().contains(lowerCaseCriteria)) ||
-                (this.currentRenterName != null && this.currentRenterName.toLowerCase().contains(lowerCaseCriteria)) ||
-                (this.currentRenterPhone != null && this.currentRenterPhone.toLowerCase().contains(lowerCaseCriteria)) ||
-                (this.currentRenterEmail != null && this.currentRenterEmail.toLowerCase().contains(lowerCaseCriteria)) ||
-                (this.rentalStartDate != null && this.rentalStartDate.toString().toLowerCase().contains(lowerCaseCriteria)) ||
-                (this.expectedReturnDate != null && this.expectedReturnDate.toString().toLowerCase().contains(lowerCaseCriteria));
+        for (String value : searchableValues()) {
+            if (value.toLowerCase().contains(lowerCaseCriteria)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> searchableValues() {
+        LocalDate start = getRentalStartDate();
+        LocalDate expectedReturn = getExpectedReturnDate();
+        List<String> values = new ArrayList<>(7);
+        addIfPresent(values, getId());
+        addIfPresent(values, getMake());
+        addIfPresent(values, getModel());
+        addIfPresent(values, getType());
+        addIfPresent(values, getCurrentRenterId());
+        addIfPresent(values, start != null ? start.toString() : null);
+        addIfPresent(values, expectedReturn != null ? expectedReturn.toString() : null);
+        return values;
+    }
+
+    private static void addIfPresent(List<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
     }
 
     @Override
     public boolean isAvailable() {
-        return this.status == CarStatus.AVAILABLE;
+        return getStatus() == CarStatus.AVAILABLE;
     }
 
     @Override
     public void markAsRented() {
         if (this.status == CarStatus.AVAILABLE) {
             this.status = CarStatus.RENTED;
+            this.dirty = true;
         } else {
             System.out.println("Car " + id + " cannot be rented as it's not Available. Current status: " + this.status);
         }
@@ -177,12 +212,10 @@ public class Car implements Rentable, Searchable {
         if (this.status == CarStatus.RENTED) {
             this.status = CarStatus.AVAILABLE;
             this.currentRenterId = null;
-            this.currentRenterName = null;
-            this.currentRenterPhone = null;
-            this.currentRenterEmail = null;
             this.rentalStartDate = null;
             this.expectedReturnDate = null;
             this.dailyRate = 0.0;
+            this.dirty = true;
         } else {
             System.out.println("Car " + id + " cannot be returned as it's not Rented. Current status: " + this.status);
         }
@@ -192,33 +225,41 @@ public class Car implements Rentable, Searchable {
     public void markAsRemovedFromAutoPark() {
         this.status = CarStatus.REMOVE_FROM_AUTO_PARK;
         this.currentRenterId = null;
-        this.currentRenterName = null;
-        this.currentRenterPhone = null;
-        this.currentRenterEmail = null;
         this.rentalStartDate = null;
         this.expectedReturnDate = null;
         this.dailyRate = 0.0;
+        this.dirty = true;
     }
 
     @Override
     public String toString() {
+        return toString(null);
+    }
+
+    public String toString(Customer renter) {
+        CarStatus status = getStatus();
+        String currentRenterId = getCurrentRenterId();
         StringBuilder sb = new StringBuilder();
-        sb.append("Car ID: ").append(id)
-                .append(" | Make: ").append(make)
-                .append(" | Model: ").append(model)
-                .append(" | Year: ").append(year)
-                .append(" | Type: ").append(type)
+        sb.append("Car ID: ").append(getId())
+                .append(" | Make: ").append(getMake())
+                .append(" | Model: ").append(getModel())
+                .append(" | Year: ").append(getYear())
+                .append(" | Type: ").append(getType())
                 .append(" | Status: ").append(status);
 
         if (status == CarStatus.RENTED && currentRenterId != null) {
-            sb.append(" | Rented by: ").append(currentRenterName)
-                    .append(" (ID: ").append(currentRenterId)
-                    .append(", Phone: ").append(currentRenterPhone)
-                    .append(", Email: ").append(currentRenterEmail)
-                    .append(")")
-                    .append(" | From: ").append(rentalStartDate)
-                    .append(" | To: ").append(expectedReturnDate)
-                    .append(" | Daily Rate: $").append(String.format("%.2f", dailyRate));
+            if (renter != null && currentRenterId.equals(renter.getId())) {
+                sb.append(" | Rented by: ").append(renter.getName())
+                        .append(" (ID: ").append(currentRenterId)
+                        .append(", Phone: ").append(renter.getPhoneNumber())
+                        .append(", Email: ").append(renter.getEmail())
+                        .append(")");
+            } else {
+                sb.append(" | Rented by customer ID: ").append(currentRenterId);
+            }
+            sb.append(" | From: ").append(getRentalStartDate())
+                    .append(" | To: ").append(getExpectedReturnDate())
+                    .append(" | Daily Rate: $").append(String.format("%.2f", getDailyRate()));
         } else if (status == CarStatus.REMOVE_FROM_AUTO_PARK) {
             sb.append(" | Removed from auto park.");
         }
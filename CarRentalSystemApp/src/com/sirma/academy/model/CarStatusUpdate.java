@@ -0,0 +1,65 @@
+package com.sirma.academy.model;
+
+import java.time.LocalDate;
+
+public class CarStatusUpdate {
+    private final String carId;
+    private final CarStatus newStatus;
+    private final String renterId;
+    private final LocalDate startDate;
+    private final LocalDate expectedReturnDate;
+    private final double dailyRate;
+
+    public CarStatusUpdate(String carId, CarStatus newStatus, String renterId, LocalDate startDate,
+                           LocalDate expectedReturnDate, double dailyRate) {
+        this.carId = carId;
+        this.newStatus = newStatus;
+        this.renterId = renterId;
+        this.startDate = startDate;
+        this.expectedReturnDate = expectedReturnDate;
+        this.dailyRate = dailyRate;
+    }
+
+    public static CarStatusUpdate rent(String carId, Customer customer, LocalDate startDate,
+                                       LocalDate expectedReturnDate, double dailyRate) {
+        return new CarStatusUpdate(carId, CarStatus.RENTED, customer.getId(), startDate, expectedReturnDate, dailyRate);
+    }
+
+    public static CarStatusUpdate returnCar(String carId) {
+        return new CarStatusUpdate(carId, CarStatus.AVAILABLE, null, null, null, 0.0);
+    }
+
+    public static CarStatusUpdate remove(String carId) {
+        return new CarStatusUpdate(carId, CarStatus.REMOVE_FROM_AUTO_PARK, null, null, null, 0.0);
+    }
+
+    public String getCarId() {
+        return carId;
+    }
+
+    public CarStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public String getRenterId() {
+        return renterId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getExpectedReturnDate() {
+        return expectedReturnDate;
+    }
+
+    public double getDailyRate() {
+        return dailyRate;
+    }
+
+    @Override
+    public String toString() {
+        return "Update of car " + carId + " to " + newStatus +
+                (renterId != null ? " | Renter ID: " + renterId : "");
+    }
+}
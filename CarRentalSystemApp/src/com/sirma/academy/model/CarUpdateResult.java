@@ -0,0 +1,30 @@
+package com.sirma.academy.model;
+
+public class CarUpdateResult {
+    private final CarStatusUpdate update;
+    private final boolean successful;
+    private final String message;
+
+    public CarUpdateResult(CarStatusUpdate update, boolean successful, String message) {
+        this.update = update;
+        this.successful = successful;
+        this.message = message;
+    }
+
+    public CarStatusUpdate getUpdate() {
+        return update;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return (successful ? "OK" : "FAILED") + " | Car ID: " + update.getCarId() + " | " + message;
+    }
+}
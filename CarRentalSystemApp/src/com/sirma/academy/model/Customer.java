@@ -1,10 +1,15 @@
 package com.sirma.academy.model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
 public class Customer implements Searchable {
     private String id;
     private String name;
     private String phoneNumber;
     private String email;
+    private boolean dirty;
 
     public Customer() {
     }
@@ -21,6 +26,7 @@ public class Customer implements Searchable {
     }
 
     public void setId(String id) {
+        dirty |= !Objects.equals(this.id, id);
         this.id = id;
     }
 
@@ -29,6 +35,7 @@ public class Customer implements Searchable {
     }
 
     public void setName(String name) {
+        dirty |= !Objects.equals(this.name, name);
         this.name = name;
     }
 
@@ -37,6 +44,7 @@ public class Customer implements Searchable {
     }
 
     public void setPhoneNumber(String phoneNumber) {
+        dirty |= !Objects.equals(this.phoneNumber, phoneNumber);
         this.phoneNumber = phoneNumber;
     }
 
@@ -45,9 +53,18 @@ public class Customer implements Searchable {
     }
 
     public void setEmail(String email) {
+        dirty |= !Objects.equals(this.email, email);
         this.email = email;
     }
 
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markClean() {
+        this.dirty = false;
+    }
+
     @Override
     public boolean matches(String criteria) {
         String lowerCaseCriteria = criteria.toLowerCase();
@@ -57,6 +74,17 @@ public class Customer implements Searchable {
                 (this.email != null && this.email.toLowerCase().contains(lowerCaseCriteria));
     }
 
+    @Override
+    public List<String> searchableValues() {
+        List<String> values = new ArrayList<>(4);
+        for (String value : new String[]{id, name, phoneNumber, email}) {
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
     @Override
     public String toString() {
         return "Customer ID: " + id +
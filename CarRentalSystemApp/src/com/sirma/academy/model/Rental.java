@@ -0,0 +1,60 @@
+package com.sirma.academy.model;
+
+import java.time.LocalDate;
+
+public class Rental {
+    private final String carId;
+    private final String customerId;
+    private final LocalDate rentalStartDate;
+    private final LocalDate expectedReturnDate;
+    private final LocalDate actualReturnDate;
+    private final double dailyRate;
+
+    public Rental(String carId, String customerId, LocalDate rentalStartDate, LocalDate expectedReturnDate,
+                  LocalDate actualReturnDate, double dailyRate) {
+        this.carId = carId;
+        this.customerId = customerId;
+        this.rentalStartDate = rentalStartDate;
+        this.expectedReturnDate = expectedReturnDate;
+        this.actualReturnDate = actualReturnDate;
+        this.dailyRate = dailyRate;
+    }
+
+    public String getCarId() {
+        return carId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDate getRentalStartDate() {
+        return rentalStartDate;
+    }
+
+    public LocalDate getExpectedReturnDate() {
+        return expectedReturnDate;
+    }
+
+    public LocalDate getActualReturnDate() {
+        return actualReturnDate;
+    }
+
+    public double getDailyRate() {
+        return dailyRate;
+    }
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return !rentalStartDate.isAfter(to) && !actualReturnDate.isBefore(from);
+    }
+
+    @Override
+    public String toString() {
+        return "Rental of car " + carId +
+                " | Customer ID: " + customerId +
+                " | From: " + rentalStartDate +
+                " | Expected: " + expectedReturnDate +
+                " | Returned: " + actualReturnDate +
+                " | Daily Rate: $" + String.format("%.2f", dailyRate);
+    }
+}
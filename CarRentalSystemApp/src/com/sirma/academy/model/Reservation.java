@@ -0,0 +1,45 @@
+package com.sirma.academy.model;
+
+import java.time.LocalDate;
+
+public class Reservation {
+    private final String carId;
+    private final String customerId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public Reservation(String carId, String customerId, LocalDate startDate, LocalDate endDate) {
+        this.carId = carId;
+        this.customerId = customerId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getCarId() {
+        return carId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public boolean overlaps(LocalDate from, LocalDate to) {
+        return !startDate.isAfter(to) && !endDate.isBefore(from);
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation of car " + carId +
+                " | Customer ID: " + customerId +
+                " | From: " + startDate +
+                " | To: " + endDate;
+    }
+}
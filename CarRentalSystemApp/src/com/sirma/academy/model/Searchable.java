@@ -1,6 +1,10 @@
 package com.sirma.academy.model;
 
+import java.util.List;
+
 public interface Searchable {
 
     boolean matches(String criteria);
-}
\ No newline at end of file
+
+    List<String> searchableValues();
+}
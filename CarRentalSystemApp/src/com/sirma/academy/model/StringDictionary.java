@@ -0,0 +1,194 @@
+package com.sirma.academy.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class StringDictionary {
+    public static final int NO_CODE = -1;
+    public static final StringDictionary MAKES = new StringDictionary(false);
+    public static final StringDictionary MODELS = new StringDictionary(false);
+    public static final StringDictionary TYPES = new StringDictionary(true);
+
+    private static final int INITIAL_SLOTS = 64;
+    private static final int INITIAL_VALUES = 32;
+
+    private final boolean ignoreCase;
+    private final Map<String, Integer> keyCodesByFoldedValue = new ConcurrentHashMap<>();
+    private volatile Entry[] slots = new Entry[INITIAL_SLOTS];
+    private String[] values = new String[INITIAL_VALUES];
+    private int[] keyCodes = new int[INITIAL_VALUES];
+    private volatile int size;
+
+    public StringDictionary(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    public int codeOf(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Entry entry = find(slots, value);
+        return entry != null ? entry.code : add(value).code;
+    }
+
+    public int keyCodeOf(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        if (ignoreCase) {
+            return keyCodesByFoldedValue.getOrDefault(fold(value), NO_CODE);
+        }
+        Entry entry = find(slots, value);
+        return entry != null ? entry.code : NO_CODE;
+    }
+
+    public int keyCodeOf(int code) {
+        if (code == NO_CODE || !ignoreCase) {
+            return code;
+        }
+        if (code >= size) {
+            synchronized (this) {
+                return keyCodes[code];
+            }
+        }
+        return keyCodes[code];
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry entry = find(slots, value);
+        return entry != null ? entry.value : add(value).value;
+    }
+
+    public String intern(char[] chars, int start, int end) {
+        Entry[] table = slots;
+        int hash = hash(chars, start, end);
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry.hash == hash && regionEquals(entry.value, chars, start, end)) {
+                return entry.value;
+            }
+        }
+        return add(new String(chars, start, end - start)).value;
+    }
+
+    public String valueOf(int code) {
+        if (code == NO_CODE) {
+            return null;
+        }
+        if (code >= size) {
+            synchronized (this) {
+                return values[code];
+            }
+        }
+        return values[code];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized Entry add(String value) {
+        Entry existing = find(slots, value);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, code * 2);
+            keyCodes = Arrays.copyOf(keyCodes, code * 2);
+        }
+        int keyCode = code;
+        if (ignoreCase) {
+            Integer folded = keyCodesByFoldedValue.get(fold(value));
+            keyCode = folded != null ? folded : code;
+        }
+        values[code] = value;
+        keyCodes[code] = keyCode;
+        Entry entry = new Entry(value, value.hashCode(), code);
+        Entry[] table = slots;
+        if ((code + 1) * 2 > table.length) {
+            Entry[] grown = new Entry[table.length * 2];
+            for (Entry previous : table) {
+                if (previous != null) {
+                    insert(grown, previous);
+                }
+            }
+            insert(grown, entry);
+            slots = grown;
+        } else {
+            insert(table, entry);
+        }
+        size = code + 1;
+        if (ignoreCase && keyCode == code) {
+            keyCodesByFoldedValue.put(fold(value), code);
+        }
+        return entry;
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry find(Entry[] table, String key) {
+        int hash = key.hashCode();
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            Entry entry = table[slot];
+            if (entry.hash == hash && entry.value.equals(key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void insert(Entry[] table, Entry entry) {
+        int mask = table.length - 1;
+        int slot = spread(entry.hash) & mask;
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    private static int hash(char[] chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionEquals(String value, char[] chars, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final int hash;
+        private final int code;
+
+        private Entry(String value, int hash, int code) {
+            this.value = value;
+            this.hash = hash;
+            this.code = code;
+        }
+    }
+}
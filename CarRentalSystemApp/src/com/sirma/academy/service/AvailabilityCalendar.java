@@ -0,0 +1,95 @@
+package com.sirma.academy.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class AvailabilityCalendar {
+    private final NavigableMap<Long, BitSet> bookedByDay = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void book(int ordinal, LocalDate from, LocalDate to) {
+        if (ordinal < 0 || from == null || to == null || from.isAfter(to)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                bookedByDay.computeIfAbsent(day, key -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void release(int ordinal, LocalDate from, LocalDate to) {
+        if (ordinal < 0 || from == null || to == null || from.isAfter(to)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                BitSet booked = bookedByDay.get(day);
+                if (booked != null) {
+                    booked.clear(ordinal);
+                    if (booked.isEmpty()) {
+                        bookedByDay.remove(day);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BitSet bookedDuring(LocalDate from, LocalDate to) {
+        BitSet booked = new BitSet();
+        if (from.isAfter(to)) {
+            return booked;
+        }
+        lock.readLock().lock();
+        try {
+            for (BitSet day : bookedByDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+                booked.or(day);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return booked;
+    }
+
+    public int[] countFreeByDay(BitSet candidates, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return new int[0];
+        }
+        int[] free = new int[(int) (to.toEpochDay() - from.toEpochDay() + 1)];
+        int candidateCount = candidates.cardinality();
+        Arrays.fill(free, candidateCount);
+        BitSet scratch = new BitSet();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, BitSet> day : bookedByDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).entrySet()) {
+                scratch.clear();
+                scratch.or(day.getValue());
+                scratch.and(candidates);
+                free[(int) (day.getKey() - from.toEpochDay())] -= scratch.cardinality();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return free;
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            bookedByDay.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sirma.academy.service;
+
+public interface BinaryCodec<T> {
+
+    int version();
+
+    void write(T item, BinaryWriter out);
+
+    T read(BinaryReader in);
+}
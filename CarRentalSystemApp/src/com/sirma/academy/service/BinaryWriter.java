@@ -0,0 +1,101 @@
+package com.sirma.academy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private long position;
+
+    public BinaryWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) {
+        ensureCapacity(8);
+        buffer.putLong(value);
+    }
+
+    public void writeDouble(double value) {
+        ensureCapacity(8);
+        buffer.putDouble(value);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureCapacity(1);
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    public void writeDictionaryString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionaryCodes.put(value, code);
+            dictionary.add(value);
+        }
+        writeInt(code);
+    }
+
+    public long position() {
+        return position + buffer.position();
+    }
+
+    List<String> dictionary() {
+        return dictionary;
+    }
+
+    void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
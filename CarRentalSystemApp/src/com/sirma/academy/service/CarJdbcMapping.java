@@ -0,0 +1,75 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class CarJdbcMapping implements JdbcMapping<Car> {
+    public static final String TABLE = "cars";
+    public static final String STATUS_COLUMN = "status";
+    public static final String TYPE_COLUMN = "car_type";
+    public static final String RENTER_COLUMN = "renter_id";
+
+    private static final List<String> COLUMNS = Arrays.asList("id", "make", "model", "model_year", TYPE_COLUMN,
+            STATUS_COLUMN, RENTER_COLUMN, "rental_start_date", "expected_return_date", "daily_rate");
+
+    @Override
+    public String tableName() {
+        return TABLE;
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public List<String> schemaStatements() {
+        return Arrays.asList(
+                "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                        + "id VARCHAR(64) PRIMARY KEY, make VARCHAR(255), model VARCHAR(255), model_year INTEGER, "
+                        + TYPE_COLUMN + " VARCHAR(255), " + STATUS_COLUMN + " VARCHAR(32) NOT NULL, "
+                        + RENTER_COLUMN + " VARCHAR(64), rental_start_date VARCHAR(10), expected_return_date VARCHAR(10), "
+                        + "daily_rate DOUBLE PRECISION)",
+                "CREATE INDEX IF NOT EXISTS idx_cars_status ON " + TABLE + " (" + STATUS_COLUMN + ")",
+                "CREATE INDEX IF NOT EXISTS idx_cars_type ON " + TABLE + " (" + TYPE_COLUMN + ")",
+                "CREATE INDEX IF NOT EXISTS idx_cars_renter ON " + TABLE + " (" + RENTER_COLUMN + ")");
+    }
+
+    @Override
+    public String idOf(Car car) {
+        return car.getId();
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, Car car) throws SQLException {
+        statement.setString(1, car.getId());
+        statement.setString(2, car.getMake());
+        statement.setString(3, car.getModel());
+        statement.setInt(4, car.getYear());
+        statement.setString(5, car.getType());
+        statement.setString(6, car.getStatus().name());
+        statement.setString(7, car.getCurrentRenterId());
+        statement.setString(8, car.getRentalStartDate() != null ? car.getRentalStartDate().toString() : null);
+        statement.setString(9, car.getExpectedReturnDate() != null ? car.getExpectedReturnDate().toString() : null);
+        statement.setDouble(10, car.getDailyRate());
+    }
+
+    @Override
+    public Car read(ResultSet row) throws SQLException {
+        String rentalStartDate = row.getString(8);
+        String expectedReturnDate = row.getString(9);
+        return new Car(row.getString(1), row.getString(2), row.getString(3), row.getInt(4), row.getString(5),
+                CarStatus.valueOf(row.getString(6)),
+                row.getString(7),
+                rentalStartDate != null ? LocalDate.parse(rentalStartDate) : null,
+                expectedReturnDate != null ? LocalDate.parse(expectedReturnDate) : null,
+                row.getDouble(10));
+    }
+}
@@ -2,118 +2,406 @@ package com.sirma.academy.service;
 
 import com.sirma.academy.model.Car;
 import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.CarStatusUpdate;
+import com.sirma.academy.model.CarUpdateResult;
+import com.sirma.academy.model.Customer;
+import com.sirma.academy.model.Rental;
+import com.sirma.academy.model.Reservation;
+import com.sirma.academy.model.StringDictionary;
 
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class CarService {
-    private List<Car> cars;
-    private FileService fileService;
+    private volatile List<Car> cars;
+    private volatile Map<String, Car> carsById;
+    private volatile List<Car> carsView;
+    private final ReentrantReadWriteLock fleetLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] carLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final SearchIndex<Car> searchIndex = SearchIndex.ofSearchable();
+    private final SearchIndex<Integer> rowSearchIndex = new SearchIndex<>(row -> carAt(row).searchableValues(),
+            (row, criteria) -> carAt(row).matches(criteria));
+    private final FleetIndex fleetIndex = new FleetIndex();
+    private final AvailabilityCalendar availabilityCalendar = new AvailabilityCalendar();
+    private final Map<CarSortOrder, SortedIndex<Car>> sortedIndexes = new ConcurrentHashMap<>();
+    private final Map<CarSortOrder, SortedIndex<Car>> activeSortedIndexes = new ConcurrentHashMap<>();
+    private final Map<CarSortOrder, SortedIndex<Integer>> rowSortedIndexes = new ConcurrentHashMap<>();
+    private final Map<CarSortOrder, SortedIndex<Integer>> activeRowSortedIndexes = new ConcurrentHashMap<>();
+    private final ServiceMetrics metrics = ServiceMetrics.getInstance();
+    private final RentalLedger rentalLedger;
+    private final ReservationCalendar reservationCalendar;
+    private final Repository<Car> repository;
+    private final CarStorage storage;
+    private volatile ColumnarCarStore columnarStore;
+    private volatile CustomerService customerService;
     private static final String FILE_PATH = "src/com/sirma/academy/data/cars.csv";
     private static final String CSV_HEADER = "id,make,model,year,type,status,customerId,name,phone,email,rentalStartDate,expectedReturnDate,priceForRent";
+    private static final CarStatus[] CAR_STATUSES = CarStatus.values();
+    private static final int LOCK_STRIPES = 64;
+    private static final String RENTALS_FILE_NAME = "rentals.csv";
+    private static final String RESERVATIONS_FILE_NAME = "reservations.csv";
+    private static final Predicate<Car> ACTIVE_CAR = car -> car.getStatus() != CarStatus.REMOVE_FROM_AUTO_PARK;
 
 
-    private final Function<String, Car> carParser = line -> {
-        String[] parts = line.split(",");
-        if (parts.length != 13) {
-            System.err.println("Skipping malformed car line (expected 13 parts): " + line);
+    private static final Function<CsvRecord, Car> CAR_PARSER = record -> {
+        if (record.fieldCount() != 13) {
+            System.err.println("Skipping malformed car line (expected 13 parts): " + record.line());
             return null;
         }
         try {
-            String id = parts[0];
-            String make = parts[1];
-            String model = parts[2];
-            int year = Integer.parseInt(parts[3]);
-            String type = parts[4];
-            CarStatus status = CarStatus.valueOf(parts[5]);
-
-            String currentRenterId = parts[6].isEmpty() ? null : parts[6];
-            String currentRenterName = parts[7].isEmpty() ? null : parts[7];
-            String currentRenterPhone = parts[8].isEmpty() ? null : parts[8];
-            String currentRenterEmail = parts[9].isEmpty() ? null : parts[9];
-            LocalDate rentalStartDate = parts[10].isEmpty() ? null : LocalDate.parse(parts[10]);
-            LocalDate expectedReturnDate = parts[11].isEmpty() ? null : LocalDate.parse(parts[11]);
-            double dailyRate = parts[12].isEmpty() ? 0.0 : Double.parseDouble(parts[12]);
+            String id = record.field(0);
+            String make = record.internedField(1, StringDictionary.MAKES);
+            String model = record.internedField(2, StringDictionary.MODELS);
+            int year = record.intField(3);
+            String type = record.internedField(4, StringDictionary.TYPES);
+            CarStatus status = record.enumField(5, CAR_STATUSES);
+
+            String currentRenterId = record.isEmpty(6) ? null : record.field(6);
+            LocalDate rentalStartDate = record.isEmpty(10) ? null : record.dateField(10);
+            LocalDate expectedReturnDate = record.isEmpty(11) ? null : record.dateField(11);
+            double dailyRate = record.isEmpty(12) ? 0.0 : record.doubleField(12);
 
             return new Car(id, make, model, year, type, status,
-                    currentRenterId, currentRenterName, currentRenterPhone,
-                    currentRenterEmail, rentalStartDate, expectedReturnDate, dailyRate);
+                    currentRenterId, rentalStartDate, expectedReturnDate, dailyRate);
         } catch (NumberFormatException e) {
-            System.err.println("Error parsing number (year or priceForRent) in car line: " + line + ". " + e.getMessage());
+            System.err.println("Error parsing number (year or priceForRent) in car line: " + record.line() + ". " + e.getMessage());
             return null;
         } catch (IllegalArgumentException e) {
-            System.err.println("Error parsing CarStatus enum in car line: " + line + ". " + e.getMessage());
+            System.err.println("Error parsing CarStatus enum in car line: " + record.line() + ". " + e.getMessage());
             return null;
         } catch (DateTimeParseException e) {
-            System.err.println("Error parsing date in car line: " + line + ". " + e.getMessage());
+            System.err.println("Error parsing date in car line: " + record.line() + ". " + e.getMessage());
             return null;
         } catch (Exception e) {
-            System.err.println("Unexpected error parsing car line: " + line + ". " + e.getMessage());
+            System.err.println("Unexpected error parsing car line: " + record.line() + ". " + e.getMessage());
             return null;
         }
     };
 
-    private final Function<Car, String> carFormatter = car ->
-            car.getId() + "," +
-                    car.getMake() + "," +
-                    car.getModel() + "," +
-                    car.getYear() + "," +
-                    car.getType() + "," +
-                    car.getStatus().name() + "," +
-                    (car.getCurrentRenterId() != null ? car.getCurrentRenterId() : "") + "," +
-                    (car.getCurrentRenterName() != null ? car.getCurrentRenterName() : "") + "," +
-                    (car.getCurrentRenterPhone() != null ? car.getCurrentRenterPhone() : "") + "," +
-                    (car.getCurrentRenterEmail() != null ? car.getCurrentRenterEmail() : "") + "," +
-                    (car.getRentalStartDate() != null ? car.getRentalStartDate().toString() : "") + "," +
-                    (car.getExpectedReturnDate() != null ? car.getExpectedReturnDate().toString() : "") + "," +
-                    (car.getDailyRate() != 0.0 ? String.format("%.2f", car.getDailyRate()) : "0.00");
+    private static final CsvFormatter<Car> CAR_CSV_FORMATTER = (car, out) -> {
+        out.writeField(car.getId());
+        out.writeField(car.getMake());
+        out.writeField(car.getModel());
+        out.writeInt(car.getYear());
+        out.writeField(car.getType());
+        out.writeEnum(car.getStatus());
+        out.writeField(car.getCurrentRenterId());
+        out.writeField(null);
+        out.writeField(null);
+        out.writeField(null);
+        out.writeDate(car.getRentalStartDate());
+        out.writeDate(car.getExpectedReturnDate());
+        out.writeMoney(car.getDailyRate());
+    };
+
+
+    private static final BinaryCodec<Car> CAR_CODEC = new BinaryCodec<Car>() {
+        private static final int NO_DATE = Integer.MIN_VALUE;
+
+        @Override
+        public int version() {
+            return 2;
+        }
+
+        @Override
+        public void write(Car car, BinaryWriter out) {
+            out.writeString(car.getId());
+            out.writeDictionaryString(car.getMake());
+            out.writeDictionaryString(car.getModel());
+            out.writeInt(car.getYear());
+            out.writeDictionaryString(car.getType());
+            out.writeByte(car.getStatus().ordinal());
+            out.writeString(car.getCurrentRenterId());
+            out.writeInt(car.getRentalStartDate() != null ? (int) car.getRentalStartDate().toEpochDay() : NO_DATE);
+            out.writeInt(car.getExpectedReturnDate() != null ? (int) car.getExpectedReturnDate().toEpochDay() : NO_DATE);
+            out.writeDouble(car.getDailyRate());
+        }
+
+        @Override
+        public Car read(BinaryReader in) {
+            String id = in.readString();
+            String make = in.readDictionaryString();
+            String model = in.readDictionaryString();
+            int year = in.readInt();
+            String type = in.readDictionaryString();
+            CarStatus status = CAR_STATUSES[in.readByte()];
+            String currentRenterId = in.readString();
+            int rentalStartDay = in.readInt();
+            int expectedReturnDay = in.readInt();
+            double dailyRate = in.readDouble();
+
+            return new Car(id, make, model, year, type, status,
+                    currentRenterId,
+                    rentalStartDay != NO_DATE ? LocalDate.ofEpochDay(rentalStartDay) : null,
+                    expectedReturnDay != NO_DATE ? LocalDate.ofEpochDay(expectedReturnDay) : null,
+                    dailyRate);
+        }
+    };
 
 
     public CarService() {
-        this.fileService = new FileService();
+        this(FILE_PATH);
+    }
+
+    public CarService(String filePath) {
+        this(filePath, Durability.SYNCHRONOUS);
+    }
+
+    public CarService(String filePath, Durability durability) {
+        this(filePath,
+                new RentalLedger(Paths.get(filePath).resolveSibling(RENTALS_FILE_NAME).toString()),
+                new ReservationCalendar(Paths.get(filePath).resolveSibling(RESERVATIONS_FILE_NAME).toString()),
+                durability);
+    }
+
+    public CarService(String filePath, RentalLedger rentalLedger, ReservationCalendar reservationCalendar) {
+        this(filePath, rentalLedger, reservationCalendar, Durability.SYNCHRONOUS);
+    }
+
+    public CarService(String filePath, RentalLedger rentalLedger, ReservationCalendar reservationCalendar,
+                      Durability durability) {
+        this(csvRepository(filePath, durability), rentalLedger, reservationCalendar);
+    }
+
+    public static Repository<Car> csvRepository(String filePath, Durability durability) {
+        return new CsvRepository<>("car", filePath, CSV_HEADER, CAR_PARSER, CAR_CSV_FORMATTER, CAR_CODEC, Car::getId, durability);
+    }
+
+    public CarService(CarStorage storage) {
+        this(csvRepository(FILE_PATH, Durability.SYNCHRONOUS),
+                new RentalLedger(Paths.get(FILE_PATH).resolveSibling(RENTALS_FILE_NAME).toString()),
+                new ReservationCalendar(Paths.get(FILE_PATH).resolveSibling(RESERVATIONS_FILE_NAME).toString()),
+                storage);
+    }
+
+    public CarService(Repository<Car> repository, RentalLedger rentalLedger, ReservationCalendar reservationCalendar) {
+        this(repository, rentalLedger, reservationCalendar, CarStorage.OBJECTS);
+    }
+
+    public CarService(Repository<Car> repository, RentalLedger rentalLedger, ReservationCalendar reservationCalendar,
+                      CarStorage storage) {
+        this.repository = repository;
+        this.storage = storage;
+        this.rentalLedger = rentalLedger;
+        this.reservationCalendar = reservationCalendar;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            carLocks[i] = new ReentrantLock();
+        }
+        reload();
+    }
+
+    public void reload() {
+        List<Car> storedCars = repository.loadAll();
+        ColumnarCarStore loadedStore = storage == CarStorage.COLUMNAR ? new ColumnarCarStore(storedCars.size()) : null;
+        Map<String, Car> loadedCars = new LinkedHashMap<>();
+        for (Car car : storedCars) {
+            if (loadedStore != null) {
+                loadedStore.put(car);
+            } else {
+                loadedCars.put(car.getId(), car);
+            }
+        }
+
+        fleetLock.writeLock().lock();
+        try {
+            this.columnarStore = loadedStore;
+            this.cars = new ArrayList<>(loadedCars.values());
+            this.carsView = null;
+            this.carsById = new ConcurrentHashMap<>(loadedCars);
+            searchIndex.rebuild(loadedCars.values());
+            fleetIndex.rebuild(loadedCars.values());
+            for (SortedIndex<Car> sortedIndex : sortedIndexes.values()) {
+                sortedIndex.rebuild(loadedCars.values());
+            }
+            for (SortedIndex<Car> sortedIndex : activeSortedIndexes.values()) {
+                sortedIndex.rebuild(loadedCars.values());
+            }
+            List<Integer> rows = allRows();
+            rowSearchIndex.rebuild(rows);
+            for (SortedIndex<Integer> sortedIndex : rowSortedIndexes.values()) {
+                sortedIndex.rebuild(rows);
+            }
+            for (SortedIndex<Integer> sortedIndex : activeRowSortedIndexes.values()) {
+                sortedIndex.rebuild(rows);
+            }
+            rebuildAvailability();
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+
+        compactIfNeeded();
+    }
+
+    private void rebuildAvailability() {
+        availabilityCalendar.clear();
+        for (Car car : currentCars()) {
+            if (car.getStatus() == CarStatus.RENTED) {
+                availabilityCalendar.book(ordinalOf(car), car.getRentalStartDate(), car.getExpectedReturnDate());
+            }
+        }
+        reservationCalendar.forEachReservation(reservation -> {
+            Car car = carById(reservation.getCarId());
+            if (car != null) {
+                availabilityCalendar.book(ordinalOf(car), reservation.getStartDate(), reservation.getEndDate());
+            }
+        });
+    }
+
+    public boolean compact() {
+        fleetLock.writeLock().lock();
+        lockAllStripes();
+        try {
+            return repository.compact(currentCars());
+        } finally {
+            unlockAllStripes();
+            fleetLock.writeLock().unlock();
+        }
+    }
 
-        this.cars = fileService.loadData(FILE_PATH, carParser).stream()
-                .filter(car -> car != null)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    public boolean flush() {
+        return repository.flush();
+    }
+
+    public void close() {
+        repository.close();
+        rentalLedger.close();
+    }
+
+    private void compactIfNeeded() {
+        if (repository.needsCompaction() && compacting.compareAndSet(false, true)) {
+            try {
+                if (repository.needsCompaction()) {
+                    compact();
+                }
+            } finally {
+                compacting.set(false);
+            }
+        }
+    }
 
-        System.out.println("Loaded " + cars.size() + " cars from " + FILE_PATH);
+    private CompletableFuture<Boolean> persist(Car car) {
+        CompletableFuture<Boolean> saved = repository.save(car);
+        car.markClean();
+        return saved;
     }
 
     public boolean addCar(Car car) {
+        return repository.await(addCarAsync(car));
+    }
+
+    public CompletableFuture<Boolean> addCarAsync(Car car) {
         if (car == null || car.getId() == null || car.getId().isEmpty()) {
             System.out.println("Invalid car data provided. Cannot add car.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
-        boolean exists = cars.stream().anyMatch(c -> c.getId().equals(car.getId()));
-        if (exists) {
-            System.out.println("Car with ID " + car.getId() + " already exists.");
-            return false;
+        CompletableFuture<Boolean> saved;
+        fleetLock.writeLock().lock();
+        try {
+            if (carById(car.getId()) != null) {
+                System.out.println("Car with ID " + car.getId() + " already exists.");
+                return CompletableFuture.completedFuture(false);
+            }
+            Car stored = car;
+            if (columnarStore != null) {
+                stored = columnarStore.view(columnarStore.put(car));
+            } else {
+                carsById.put(car.getId(), car);
+                this.cars.add(car);
+                this.carsView = null;
+            }
+            indexCar(stored);
+            saved = persist(stored);
+        } finally {
+            fleetLock.writeLock().unlock();
         }
+        compactIfNeeded();
 
-        this.cars.add(car);
-        boolean saveSuccessful = fileService.saveData(FILE_PATH, CSV_HEADER, cars, carFormatter);
-        if (saveSuccessful) {
-            System.out.println("Car with ID " + car.getId() + " added successfully.");
-        } else {
-            System.err.println("Failed to save car with ID " + car.getId() + " to file. It might be added only in memory.");
-        }
-        return saveSuccessful;
+        String carId = car.getId();
+        return saved.thenApply(saveSuccessful -> {
+            if (saveSuccessful) {
+                System.out.println("Car with ID " + carId + " added successfully.");
+            } else {
+                System.err.println("Failed to save car with ID " + carId + " to file. It might be added only in memory.");
+            }
+            return saveSuccessful;
+        });
     }
 
     public Optional<Car> findCarById(String carId) {
-        return cars.stream()
-                .filter(car -> car.getId().equals(carId))
-                .findFirst();
+        long start = System.nanoTime();
+        Car car = carById(carId);
+        metrics.recordSince(Metric.CAR_LOOKUP, start);
+        return Optional.ofNullable(car);
+    }
+
+    public void setCustomerService(CustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    public Customer findRenter(Car car) {
+        CustomerService renters = customerService;
+        return renters != null && car.getCurrentRenterId() != null ? renters.findRenter(car.getCurrentRenterId()) : null;
+    }
+
+    public String describe(Car car) {
+        return car.toString(findRenter(car));
     }
 
     public List<Car> searchCars(String criteria) {
+        long start = System.nanoTime();
+        List<Car> foundCars;
+        if (!searchIndex.canSearch(criteria)) {
+            foundCars = scanCars(criteria);
+        } else if (columnarStore != null) {
+            foundCars = carsAt(rowSearchIndex.search(criteria));
+        } else {
+            foundCars = searchIndex.search(criteria);
+        }
+        CustomerService renters = customerService;
+        if (renters != null) {
+            foundCars = addCarsRentedBy(foundCars, renters.searchCustomers(criteria));
+        }
+        metrics.recordSince(Metric.CAR_SEARCH, start);
+        return foundCars;
+    }
+
+    private List<Car> addCarsRentedBy(List<Car> foundCars, List<Customer> matchingRenters) {
+        if (matchingRenters.isEmpty()) {
+            return foundCars;
+        }
+        Set<Car> merged = new LinkedHashSet<>(foundCars);
+        for (Customer renter : matchingRenters) {
+            merged.addAll(findByRenter(renter.getId()));
+        }
+        return new ArrayList<>(merged);
+    }
+
+    private List<Car> scanCars(String criteria) {
         List<Car> foundCars = new ArrayList<>();
-        for (Car car : cars) {
+        for (Car car : getAllCars()) {
             if (car.matches(criteria)) {
                 foundCars.add(car);
             }
@@ -121,52 +409,567 @@ public class CarService {
         return foundCars;
     }
 
+    public List<Car> findByStatus(CarStatus status) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.views(store.rowsByStatus(status)) : fleetIndex.findByStatus(status);
+    }
+
+    public List<Car> findByType(String type) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.views(store.rowsByType(type)) : fleetIndex.findByType(type);
+    }
+
+    public List<Car> findByRenter(String renterId) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.views(store.rowsByRenter(renterId)) : fleetIndex.findByRenter(renterId);
+    }
+
+    public int countByStatus(CarStatus status) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.countByStatus(status) : fleetIndex.countByStatus(status);
+    }
+
+    public int countByType(String type) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.countByType(type) : fleetIndex.countByType(type);
+    }
+
     public List<Car> getAllCars() {
-        return new ArrayList<>(cars);
+        if (columnarStore != null) {
+            fleetLock.readLock().lock();
+            try {
+                return Collections.unmodifiableList(currentCars());
+            } finally {
+                fleetLock.readLock().unlock();
+            }
+        }
+        List<Car> view = carsView;
+        if (view != null) {
+            return view;
+        }
+        fleetLock.readLock().lock();
+        try {
+            view = carsView;
+            if (view == null) {
+                view = Collections.unmodifiableList(new ArrayList<>(cars));
+                carsView = view;
+            }
+            return view;
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    public Page<Car> listCars(CarSortOrder order, PageCursor after, int pageSize) {
+        return listCars(order, after, pageSize, car -> true);
+    }
+
+    public Page<Car> listCars(CarSortOrder order, PageCursor after, int pageSize, Predicate<? super Car> filter) {
+        if (columnarStore != null) {
+            Page<Integer> rows = sortedIndex(rowSortedIndexes, order, sortOrder -> sortOrder.newRowIndex(this::carAt, car -> true),
+                    this::allRows).page(after, pageSize, row -> filter.test(carAt(row)));
+            return new Page<>(carsAt(rows.getItems()), rows.getNextCursor());
+        }
+        return sortedIndex(sortedIndexes, order, sortOrder -> sortOrder.newIndex(car -> true), () -> cars)
+                .page(after, pageSize, filter);
+    }
+
+    public Page<Car> listActiveCars(CarSortOrder order, PageCursor after, int pageSize) {
+        if (columnarStore != null) {
+            Page<Integer> rows = sortedIndex(activeRowSortedIndexes, order, sortOrder -> sortOrder.newRowIndex(this::carAt, ACTIVE_CAR),
+                    this::allRows).page(after, pageSize, row -> ACTIVE_CAR.test(carAt(row)));
+            return new Page<>(carsAt(rows.getItems()), rows.getNextCursor());
+        }
+        return sortedIndex(activeSortedIndexes, order, sortOrder -> sortOrder.newIndex(ACTIVE_CAR), () -> cars)
+                .page(after, pageSize, ACTIVE_CAR);
+    }
+
+    public Iterator<Car> iterateCars(CarSortOrder order) {
+        if (columnarStore != null) {
+            Iterator<Integer> rows = sortedIndex(rowSortedIndexes, order, sortOrder -> sortOrder.newRowIndex(this::carAt, car -> true),
+                    this::allRows).iterator(null);
+            return new Iterator<Car>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Car next() {
+                    return carAt(rows.next());
+                }
+            };
+        }
+        return sortedIndex(sortedIndexes, order, sortOrder -> sortOrder.newIndex(car -> true), () -> cars).iterator(null);
+    }
+
+    private <T> SortedIndex<T> sortedIndex(Map<CarSortOrder, SortedIndex<T>> indexes, CarSortOrder order,
+                                           Function<CarSortOrder, SortedIndex<T>> newIndex, Supplier<List<T>> members) {
+        SortedIndex<T> sortedIndex = indexes.get(order);
+        if (sortedIndex != null) {
+            return sortedIndex;
+        }
+        fleetLock.writeLock().lock();
+        lockAllStripes();
+        try {
+            sortedIndex = indexes.get(order);
+            if (sortedIndex == null) {
+                sortedIndex = newIndex.apply(order);
+                sortedIndex.rebuild(members.get());
+                indexes.put(order, sortedIndex);
+            }
+            return sortedIndex;
+        } finally {
+            unlockAllStripes();
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    private void indexCar(Car car) {
+        ColumnarCarStore store = columnarStore;
+        if (store != null) {
+            int row = store.rowOf(car);
+            rowSearchIndex.index(row);
+            for (SortedIndex<Integer> sortedIndex : rowSortedIndexes.values()) {
+                sortedIndex.index(row);
+            }
+            for (SortedIndex<Integer> sortedIndex : activeRowSortedIndexes.values()) {
+                sortedIndex.index(row);
+            }
+            return;
+        }
+        searchIndex.index(car);
+        fleetIndex.index(car);
+        for (SortedIndex<Car> sortedIndex : sortedIndexes.values()) {
+            sortedIndex.index(car);
+        }
+        for (SortedIndex<Car> sortedIndex : activeSortedIndexes.values()) {
+            sortedIndex.index(car);
+        }
+    }
+
+    private Car carById(String carId) {
+        if (carId == null) {
+            return null;
+        }
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.get(carId) : carsById.get(carId);
+    }
+
+    private int ordinalOf(Car car) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.rowOf(car) : fleetIndex.ordinalOf(car);
+    }
+
+    private Car carAt(int ordinal) {
+        ColumnarCarStore store = columnarStore;
+        if (store == null) {
+            return fleetIndex.carAt(ordinal);
+        }
+        return ordinal >= 0 && ordinal < store.size() ? store.view(ordinal) : null;
+    }
+
+    private List<Car> carsAt(List<Integer> ordinals) {
+        List<Car> found = new ArrayList<>(ordinals.size());
+        for (int ordinal : ordinals) {
+            found.add(carAt(ordinal));
+        }
+        return found;
+    }
+
+    private List<Integer> allRows() {
+        ColumnarCarStore store = columnarStore;
+        int size = store != null ? store.size() : 0;
+        List<Integer> rows = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Car> currentCars() {
+        ColumnarCarStore store = columnarStore;
+        if (store == null) {
+            return cars;
+        }
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        return store.views(rows);
+    }
+
+    private BitSet activeCarBits(String type) {
+        ColumnarCarStore store = columnarStore;
+        return store != null ? store.activeRows(type) : fleetIndex.activeCarBits(type);
+    }
+
+    public void forEachCar(Consumer<? super Car> action) {
+        getAllCars().forEach(action);
+    }
+
+    public Spliterator<Car> carSpliterator() {
+        return getAllCars().spliterator();
     }
 
 
     public boolean updateCarStatusAndRentalInfo(String carId, CarStatus newStatus,
-                                                String renterId, String renterName, String renterPhone, String renterEmail,
-                                                LocalDate startDate, LocalDate expectedDate, double rate) {
-        Optional<Car> carOptional = findCarById(carId);
-        if (carOptional.isPresent()) {
-            Car car = carOptional.get();
-
-            switch (newStatus) {
-                case AVAILABLE:
-                    car.markAsReturned();
-                    break;
-                case RENTED:
-                    if (car.getStatus() == CarStatus.AVAILABLE) {
-                        car.setStatus(CarStatus.RENTED);
-                        car.setCurrentRenterId(renterId);
-                        car.setCurrentRenterName(renterName);
-                        car.setCurrentRenterPhone(renterPhone);
-                        car.setCurrentRenterEmail(renterEmail);
-                        car.setRentalStartDate(startDate);
-                        car.setExpectedReturnDate(expectedDate);
-                        car.setDailyRate(rate);
-                    } else {
-                        System.out.println("Car " + car.getId() + " cannot be rented as it's not Available. Current status: " + car.getStatus());
-                        return false;
-                    }
-                    break;
-                case REMOVE_FROM_AUTO_PARK:
-                    car.markAsRemovedFromAutoPark();
-                    break;
-            }
-
-            boolean saveSuccessful = fileService.saveData(FILE_PATH, CSV_HEADER, cars, carFormatter);
+                                                String renterId, LocalDate startDate, LocalDate expectedDate, double rate) {
+        return repository.await(updateCarStatusAsync(new CarStatusUpdate(carId, newStatus,
+                renterId, startDate, expectedDate, rate)));
+    }
+
+    public CompletableFuture<Boolean> updateCarStatusAsync(CarStatusUpdate update) {
+        long start = System.nanoTime();
+        ReentrantLock carLock = lockFor(update.getCarId());
+        CompletableFuture<Boolean> saved;
+        CarStatus updatedStatus;
+        List<Rental> completedRentals = new ArrayList<>(1);
+        carLock.lock();
+        try {
+            String failure = applyUpdate(update, completedRentals);
+            if (failure != null) {
+                System.out.println(failure);
+                recordStatusChange(update, start, false);
+                return CompletableFuture.completedFuture(false);
+            }
+            Car car = carById(update.getCarId());
+            updatedStatus = car.getStatus();
+            saved = persist(car);
+        } finally {
+            carLock.unlock();
+        }
+        compactIfNeeded();
+
+        return saved.thenApply(saveSuccessful -> {
+            recordStatusChange(update, start, saveSuccessful);
             if (saveSuccessful) {
-                System.out.println("Status of car " + car.getId() + " updated to " + car.getStatus() + (newStatus == CarStatus.RENTED ? " and rental info set." : "."));
+                recordCompletedRentals(completedRentals);
+                System.out.println("Status of car " + update.getCarId() + " updated to " + updatedStatus + (update.getNewStatus() == CarStatus.RENTED ? " and rental info set." : "."));
             } else {
-                System.err.println("Failed to save car status update for car ID " + car.getId() + " to file.");
+                System.err.println("Failed to save car status update for car ID " + update.getCarId() + " to file.");
+            }
+            return saveSuccessful;
+        });
+    }
+
+    private void recordStatusChange(CarStatusUpdate update, long start, boolean successful) {
+        if (update.getNewStatus() == CarStatus.RENTED) {
+            metrics.recordSince(Metric.RENTAL, start, successful);
+        } else if (update.getNewStatus() == CarStatus.AVAILABLE) {
+            metrics.recordSince(Metric.RETURN, start, successful);
+        }
+    }
+
+    public boolean saveCar(String carId) {
+        return repository.await(saveCarAsync(carId));
+    }
+
+    public CompletableFuture<Boolean> saveCarAsync(String carId) {
+        ReentrantLock carLock = lockFor(carId);
+        CompletableFuture<Boolean> saved;
+        carLock.lock();
+        try {
+            Car car = carById(carId);
+            if (car == null) {
+                System.out.println("Car with ID " + carId + " not found. Cannot save changes.");
+                return CompletableFuture.completedFuture(false);
+            }
+            if (!car.isDirty()) {
+                System.out.println("Car with ID " + carId + " has no changes to save.");
+                return CompletableFuture.completedFuture(true);
+            }
+            indexCar(car);
+            saved = persist(car);
+        } finally {
+            carLock.unlock();
+        }
+        compactIfNeeded();
+
+        return saved.thenApply(saveSuccessful -> {
+            if (!saveSuccessful) {
+                System.err.println("Failed to save changes of car ID " + carId + " to file.");
             }
             return saveSuccessful;
+        });
+    }
+
+    public List<CarUpdateResult> updateCars(List<CarStatusUpdate> updates) {
+        long start = System.nanoTime();
+        List<CarUpdateResult> results = new ArrayList<>(updates.size());
+        Map<String, Car> changedCars = new LinkedHashMap<>();
+        List<Rental> completedRentals = new ArrayList<>();
+        BitSet stripes = new BitSet(LOCK_STRIPES);
+        for (CarStatusUpdate update : updates) {
+            stripes.set(stripeOf(update.getCarId()));
+        }
+
+        CompletableFuture<Boolean> saved;
+        lockStripes(stripes);
+        try {
+            for (CarStatusUpdate update : updates) {
+                String failure = update.getNewStatus() == CarStatus.AVAILABLE ? checkReturnable(update.getCarId()) : null;
+                if (failure == null) {
+                    failure = applyUpdate(update, completedRentals);
+                }
+                if (failure == null) {
+                    Car car = carById(update.getCarId());
+                    changedCars.put(car.getId(), car);
+                    results.add(new CarUpdateResult(update, true, "Status updated to " + car.getStatus() + "."));
+                } else {
+                    results.add(new CarUpdateResult(update, false, failure));
+                }
+            }
+
+            saved = repository.saveAll(new ArrayList<>(changedCars.values()));
+        } finally {
+            unlockStripes(stripes);
+        }
+        compactIfNeeded();
+
+        boolean saveSuccessful = repository.await(saved);
+        if (saveSuccessful) {
+            recordCompletedRentals(completedRentals);
         } else {
-            System.out.println("Car with ID " + carId + " not found. Cannot update status or rental info.");
+            System.err.println("Failed to save batch of " + changedCars.size() + " car updates to file. They might be applied only in memory.");
+            for (int i = 0; i < results.size(); i++) {
+                CarUpdateResult result = results.get(i);
+                if (result.isSuccessful()) {
+                    results.set(i, new CarUpdateResult(result.getUpdate(), false, "Applied in memory but failed to save to file."));
+                }
+            }
+        }
+        int applied = 0;
+        for (CarUpdateResult result : results) {
+            recordStatusChange(result.getUpdate(), start, result.isSuccessful());
+            if (result.isSuccessful()) {
+                applied++;
+            }
+        }
+        System.out.println("Batch update of " + updates.size() + " cars: " + applied + " applied, " + (updates.size() - applied) + " failed.");
+        return results;
+    }
+
+    private String checkReturnable(String carId) {
+        Car car = carById(carId);
+        if (car != null && car.getStatus() != CarStatus.RENTED) {
+            return "Car " + carId + " is not currently rented. Current status: " + car.getStatus();
+        }
+        return null;
+    }
+
+    private String applyUpdate(CarStatusUpdate update, List<Rental> completedRentals) {
+        Car car = carById(update.getCarId());
+        if (car == null) {
+            return "Car with ID " + update.getCarId() + " not found. Cannot update status or rental info.";
+        }
+
+        if (update.getNewStatus() == CarStatus.RENTED) {
+            if (car.getStatus() != CarStatus.AVAILABLE) {
+                return "Car " + car.getId() + " cannot be rented as it's not Available. Current status: " + car.getStatus();
+            }
+            String conflict = claimReservations(car, update.getRenterId(), update.getStartDate(), update.getExpectedReturnDate());
+            if (conflict != null) {
+                return conflict;
+            }
+        } else if (car.getStatus() == CarStatus.RENTED) {
+            completedRentals.add(completedRental(car));
+            availabilityCalendar.release(ordinalOf(car), car.getRentalStartDate(), car.getExpectedReturnDate());
+        }
+
+        switch (update.getNewStatus()) {
+            case AVAILABLE:
+                car.markAsReturned();
+                break;
+            case RENTED:
+                car.setStatus(CarStatus.RENTED);
+                car.setCurrentRenterId(update.getRenterId());
+                car.setRentalStartDate(update.getStartDate());
+                car.setExpectedReturnDate(update.getExpectedReturnDate());
+                car.setDailyRate(update.getDailyRate());
+                availabilityCalendar.book(ordinalOf(car), update.getStartDate(), update.getExpectedReturnDate());
+                break;
+            case REMOVE_FROM_AUTO_PARK:
+                car.markAsRemovedFromAutoPark();
+                break;
+        }
+        indexCar(car);
+        return null;
+    }
+
+    public List<Rental> findRentalsOverlapping(LocalDate from, LocalDate to) {
+        return rentalLedger.findOverlapping(from, to);
+    }
+
+    public List<Rental> findRentalHistory(String customerId) {
+        return rentalLedger.findByCustomer(customerId);
+    }
+
+    public boolean reserveCar(String carId, String customerId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            System.out.println("Invalid reservation period " + startDate + " - " + endDate + ".");
+            return false;
+        }
+
+        ReentrantLock carLock = lockFor(carId);
+        carLock.lock();
+        try {
+            Car car = carById(carId);
+            if (car == null) {
+                System.out.println("Car with ID " + carId + " not found. Cannot reserve it.");
+                return false;
+            }
+            if (car.getStatus() == CarStatus.REMOVE_FROM_AUTO_PARK) {
+                System.out.println("Car " + carId + " is removed from the auto park and cannot be reserved.");
+                return false;
+            }
+            if (isRentedDuring(car, startDate, endDate)) {
+                System.out.println("Car " + carId + " is rented until " + car.getExpectedReturnDate() + " and cannot be reserved for that period.");
+                return false;
+            }
+            Reservation conflict = reservationCalendar.findConflict(carId, startDate, endDate);
+            if (conflict != null) {
+                System.out.println("Car " + carId + " is already reserved from " + conflict.getStartDate() + " to " + conflict.getEndDate() + ".");
+                return false;
+            }
+
+            boolean saveSuccessful = reservationCalendar.add(new Reservation(carId, customerId, startDate, endDate));
+            availabilityCalendar.book(ordinalOf(car), startDate, endDate);
+            if (saveSuccessful) {
+                System.out.println("Car " + carId + " reserved for customer " + customerId + " from " + startDate + " to " + endDate + ".");
+            } else {
+                System.err.println("Failed to save reservation of car " + carId + " to file.");
+            }
+            return saveSuccessful;
+        } finally {
+            carLock.unlock();
+        }
+    }
+
+    public boolean cancelReservation(String carId, LocalDate startDate) {
+        ReentrantLock carLock = lockFor(carId);
+        carLock.lock();
+        try {
+            for (Reservation reservation : reservationCalendar.findOverlapping(carId, startDate, startDate)) {
+                if (reservation.getStartDate().equals(startDate)) {
+                    return releaseReservation(reservation);
+                }
+            }
+            System.out.println("No reservation of car " + carId + " starts on " + startDate + ".");
+            return false;
+        } finally {
+            carLock.unlock();
+        }
+    }
+
+    public List<Reservation> findReservations(String carId) {
+        return reservationCalendar.findByCar(carId);
+    }
+
+    public List<Car> findAvailableCars(String type, LocalDate from, LocalDate to) {
+        List<Car> availableCars = new ArrayList<>();
+        if (from == null || to == null || from.isAfter(to)) {
+            return availableCars;
+        }
+        BitSet candidates = activeCarBits(type);
+        candidates.andNot(availabilityCalendar.bookedDuring(from, to));
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            Car car = carAt(ordinal);
+            if (car != null && !isRentedDuring(car, from, to)) {
+                availableCars.add(car);
+            }
+        }
+        return availableCars;
+    }
+
+    public Map<LocalDate, Integer> countAvailableByDay(String type, LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> availableByDay = new LinkedHashMap<>();
+        if (from == null || to == null || from.isAfter(to)) {
+            return availableByDay;
+        }
+        int[] free = availabilityCalendar.countFreeByDay(activeCarBits(type), from, to);
+        for (int day = 0; day < free.length; day++) {
+            availableByDay.put(from.plusDays(day), free[day]);
+        }
+        return availableByDay;
+    }
+
+    private boolean isRentedDuring(Car car, LocalDate from, LocalDate to) {
+        if (car.getStatus() != CarStatus.RENTED) {
             return false;
         }
+        LocalDate rentalStart = car.getRentalStartDate();
+        LocalDate rentalEnd = car.getExpectedReturnDate();
+        return (rentalStart == null || !rentalStart.isAfter(to)) && (rentalEnd == null || !rentalEnd.isBefore(from));
+    }
+
+    private String claimReservations(Car car, String renterId, LocalDate startDate, LocalDate expectedDate) {
+        if (startDate == null || expectedDate == null) {
+            return null;
+        }
+        List<Reservation> overlapping = reservationCalendar.findOverlapping(car.getId(), startDate, expectedDate);
+        for (Reservation reservation : overlapping) {
+            if (!reservation.getCustomerId().equals(renterId)) {
+                return "Car " + car.getId() + " cannot be rented from " + startDate + " to " + expectedDate
+                        + " because it is reserved by another customer from " + reservation.getStartDate() + " to " + reservation.getEndDate() + ".";
+            }
+        }
+        for (Reservation reservation : overlapping) {
+            releaseReservation(reservation);
+        }
+        return null;
+    }
+
+    private boolean releaseReservation(Reservation reservation) {
+        boolean removed = reservationCalendar.remove(reservation);
+        Car car = carById(reservation.getCarId());
+        if (car != null) {
+            availabilityCalendar.release(ordinalOf(car), reservation.getStartDate(), reservation.getEndDate());
+        }
+        return removed;
+    }
+
+    private Rental completedRental(Car car) {
+        LocalDate startDate = car.getRentalStartDate() != null ? car.getRentalStartDate() : LocalDate.now();
+        LocalDate returnDate = LocalDate.now().isBefore(startDate) ? startDate : LocalDate.now();
+        return new Rental(car.getId(), car.getCurrentRenterId(), startDate,
+                car.getExpectedReturnDate(), returnDate, car.getDailyRate());
+    }
+
+    private void recordCompletedRentals(List<Rental> completedRentals) {
+        if (!rentalLedger.recordAll(completedRentals)) {
+            System.err.println("Failed to record " + completedRentals.size() + " completed rentals in the rental ledger.");
+        }
+    }
+
+    private ReentrantLock lockFor(String carId) {
+        return carLocks[stripeOf(carId)];
+    }
+
+    private static int stripeOf(String carId) {
+        int hash = carId == null ? 0 : carId.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    private void lockStripes(BitSet stripes) {
+        for (int stripe = stripes.nextSetBit(0); stripe >= 0; stripe = stripes.nextSetBit(stripe + 1)) {
+            carLocks[stripe].lock();
+        }
+    }
+
+    private void unlockStripes(BitSet stripes) {
+        for (int stripe = stripes.previousSetBit(LOCK_STRIPES - 1); stripe >= 0; stripe = stripes.previousSetBit(stripe - 1)) {
+            carLocks[stripe].unlock();
+        }
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantLock carLock : carLocks) {
+            carLock.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = carLocks.length - 1; i >= 0; i--) {
+            carLocks[i].unlock();
+        }
     }
-}
\ No newline at end of file
+}
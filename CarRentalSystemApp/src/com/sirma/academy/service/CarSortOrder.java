@@ -0,0 +1,49 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Car;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+public enum CarSortOrder {
+    ID("id", car -> 0L, car -> null),
+    MAKE("make", car -> 0L, Car::getMake),
+    YEAR("year", Car::getYear, car -> null),
+    STATUS("status", car -> car.getStatus().ordinal(), car -> null),
+    RETURN_DATE("return date", car -> car.getExpectedReturnDate() != null ? car.getExpectedReturnDate().toEpochDay() : Long.MAX_VALUE,
+            car -> null);
+
+    private final String label;
+    private final ToLongFunction<Car> numberOf;
+    private final Function<Car, String> textOf;
+
+    CarSortOrder(String label, ToLongFunction<Car> numberOf, Function<Car, String> textOf) {
+        this.label = label;
+        this.numberOf = numberOf;
+        this.textOf = textOf;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static CarSortOrder fromLabel(String label) {
+        for (CarSortOrder order : values()) {
+            if (order.label.equalsIgnoreCase(label.trim()) || order.name().equalsIgnoreCase(label.trim())) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    SortedIndex<Car> newIndex(Predicate<? super Car> membership) {
+        return new SortedIndex<>(numberOf, textOf, Car::getId, membership);
+    }
+
+    SortedIndex<Integer> newRowIndex(IntFunction<Car> carAt, Predicate<? super Car> membership) {
+        return new SortedIndex<>(row -> numberOf.applyAsLong(carAt.apply(row)), row -> textOf.apply(carAt.apply(row)),
+                row -> carAt.apply(row).getId(), row -> membership.test(carAt.apply(row)));
+    }
+}
@@ -0,0 +1,6 @@
+package com.sirma.academy.service;
+
+public enum CarStorage {
+    OBJECTS,
+    COLUMNAR
+}
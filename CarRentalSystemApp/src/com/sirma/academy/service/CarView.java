@@ -0,0 +1,179 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+class CarView extends Car {
+    private final ColumnarCarStore store;
+    private final int row;
+
+    CarView(ColumnarCarStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    @Override
+    public String getId() {
+        return store.idAt(row);
+    }
+
+    @Override
+    public String getMake() {
+        return store.makeAt(row);
+    }
+
+    @Override
+    public String getModel() {
+        return store.modelAt(row);
+    }
+
+    @Override
+    public int getMakeCode() {
+        return store.makeCodeAt(row);
+    }
+
+    @Override
+    public int getModelCode() {
+        return store.modelCodeAt(row);
+    }
+
+    @Override
+    public int getTypeCode() {
+        return store.typeCodeAt(row);
+    }
+
+    @Override
+    public int getYear() {
+        return store.yearAt(row);
+    }
+
+    @Override
+    public String getType() {
+        return store.typeAt(row);
+    }
+
+    @Override
+    public CarStatus getStatus() {
+        return store.statusAt(row);
+    }
+
+    @Override
+    public String getCurrentRenterId() {
+        return store.renterIdAt(row);
+    }
+
+    @Override
+    public LocalDate getRentalStartDate() {
+        return store.rentalStartDateAt(row);
+    }
+
+    @Override
+    public LocalDate getExpectedReturnDate() {
+        return store.expectedReturnDateAt(row);
+    }
+
+    @Override
+    public double getDailyRate() {
+        return store.dailyRateAt(row);
+    }
+
+    @Override
+    public void setId(String id) {
+        modify(car -> car.setId(id));
+    }
+
+    @Override
+    public void setMake(String make) {
+        modify(car -> car.setMake(make));
+    }
+
+    @Override
+    public void setModel(String model) {
+        modify(car -> car.setModel(model));
+    }
+
+    @Override
+    public void setYear(int year) {
+        modify(car -> car.setYear(year));
+    }
+
+    @Override
+    public void setType(String type) {
+        modify(car -> car.setType(type));
+    }
+
+    @Override
+    public void setStatus(CarStatus status) {
+        modify(car -> car.setStatus(status));
+    }
+
+    @Override
+    public void setCurrentRenterId(String currentRenterId) {
+        modify(car -> car.setCurrentRenterId(currentRenterId));
+    }
+
+    @Override
+    public void setRentalStartDate(LocalDate rentalStartDate) {
+        modify(car -> car.setRentalStartDate(rentalStartDate));
+    }
+
+    @Override
+    public void setExpectedReturnDate(LocalDate expectedReturnDate) {
+        modify(car -> car.setExpectedReturnDate(expectedReturnDate));
+    }
+
+    @Override
+    public void setDailyRate(double dailyRate) {
+        modify(car -> car.setDailyRate(dailyRate));
+    }
+
+    @Override
+    public boolean isDirty() {
+        return store.isDirty(row);
+    }
+
+    @Override
+    public void markClean() {
+        store.markClean(row);
+    }
+
+    @Override
+    public void markAsRented() {
+        modify(Car::markAsRented);
+    }
+
+    @Override
+    public void markAsReturned() {
+        modify(Car::markAsReturned);
+    }
+
+    @Override
+    public void markAsRemovedFromAutoPark() {
+        modify(Car::markAsRemovedFromAutoPark);
+    }
+
+    ColumnarCarStore store() {
+        return store;
+    }
+
+    int row() {
+        return row;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CarView && ((CarView) other).store == store && ((CarView) other).row == row;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(store) * 31 + row;
+    }
+
+    private void modify(Consumer<Car> change) {
+        store.modify(row, change);
+    }
+}
@@ -0,0 +1,621 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.StringDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+public class ColumnarCarStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final CarStatus[] CAR_STATUSES = CarStatus.values();
+
+    private static final int ID = 0;
+    private static final int RENTER_ID = 1;
+    private static final int STRING_COLUMNS = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringColumn[] strings = new StringColumn[STRING_COLUMNS];
+    private final BitSet dirtyRows = new BitSet();
+    private int capacity;
+    private int size;
+    private ByteBuffer years;
+    private ByteBuffer statuses;
+    private ByteBuffer makes;
+    private ByteBuffer models;
+    private ByteBuffer types;
+    private ByteBuffer rentalStartDays;
+    private ByteBuffer expectedReturnDays;
+    private ByteBuffer rateCents;
+    private ByteBuffer idSlots;
+
+    public ColumnarCarStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarCarStore(int initialCapacity) {
+        capacity = Math.max(16, initialCapacity);
+        years = allocate(capacity * Integer.BYTES);
+        statuses = allocate(capacity);
+        makes = allocate(capacity * Integer.BYTES);
+        models = allocate(capacity * Integer.BYTES);
+        types = allocate(capacity * Integer.BYTES);
+        rentalStartDays = allocate(capacity * Integer.BYTES);
+        expectedReturnDays = allocate(capacity * Integer.BYTES);
+        rateCents = allocate(capacity * Long.BYTES);
+        for (int i = 0; i < STRING_COLUMNS; i++) {
+            strings[i] = new StringColumn(capacity);
+        }
+        idSlots = allocate(slotCountFor(capacity) * Integer.BYTES);
+    }
+
+    public static ColumnarCarStore of(Collection<Car> cars) {
+        ColumnarCarStore store = new ColumnarCarStore(cars.size());
+        for (Car car : cars) {
+            store.put(car);
+        }
+        return store;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int put(Car car) {
+        lock.writeLock().lock();
+        try {
+            int row = findRow(car.getId());
+            if (row < 0) {
+                ensureCapacity(size + 1);
+                row = size++;
+                strings[ID].set(row, car.getId());
+                insertSlot(row);
+            }
+            years.putInt(row * Integer.BYTES, car.getYear());
+            statuses.put(row, (byte) car.getStatus().ordinal());
+            makes.putInt(row * Integer.BYTES, StringDictionary.MAKES.codeOf(car.getMake()));
+            models.putInt(row * Integer.BYTES, StringDictionary.MODELS.codeOf(car.getModel()));
+            types.putInt(row * Integer.BYTES, StringDictionary.TYPES.codeOf(car.getType()));
+            writeRental(row, car.getCurrentRenterId(), car.getRentalStartDate(), car.getExpectedReturnDate(),
+                    car.getDailyRate());
+            dirtyRows.clear(row);
+            return row;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int rowOf(String id) {
+        lock.readLock().lock();
+        try {
+            return findRow(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int rowOf(Car car) {
+        if (car instanceof CarView && ((CarView) car).store() == this) {
+            return ((CarView) car).row();
+        }
+        return car == null ? -1 : rowOf(car.getId());
+    }
+
+    public Car get(String id) {
+        int row = rowOf(id);
+        return row < 0 ? null : new CarView(this, row);
+    }
+
+    public Car view(int row) {
+        checkRow(row);
+        return new CarView(this, row);
+    }
+
+    public List<Car> views(BitSet rows) {
+        List<Car> cars = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            cars.add(new CarView(this, row));
+        }
+        return cars;
+    }
+
+    public Car materialize(int row) {
+        lock.readLock().lock();
+        try {
+            checkRow(row);
+            return new Car(strings[ID].get(row), valueOf(StringDictionary.MAKES, makes, row),
+                    valueOf(StringDictionary.MODELS, models, row), years.getInt(row * Integer.BYTES),
+                    valueOf(StringDictionary.TYPES, types, row), CAR_STATUSES[statuses.get(row)],
+                    strings[RENTER_ID].get(row), dateOf(rentalStartDays, row), dateOf(expectedReturnDays, row),
+                    rateCents.getLong(row * Long.BYTES) / 100.0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByStatus(CarStatus status) {
+        lock.readLock().lock();
+        try {
+            byte code = (byte) status.ordinal();
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                count += statuses.get(row) == code ? 1 : 0;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet rowsByStatus(CarStatus status) {
+        lock.readLock().lock();
+        try {
+            byte code = (byte) status.ordinal();
+            long[] words = new long[(size + 63) >>> 6];
+            for (int row = 0; row < size; row++) {
+                words[row >>> 6] |= (statuses.get(row) == code ? 1L : 0L) << row;
+            }
+            return BitSet.valueOf(words);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet rowsByRenter(String renterId) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = new BitSet();
+            if (renterId == null) {
+                return rows;
+            }
+            byte[] key = renterId.getBytes(StandardCharsets.UTF_8);
+            for (int row = 0; row < size; row++) {
+                if (strings[RENTER_ID].equalsAt(row, key)) {
+                    rows.set(row);
+                }
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet activeRows(String type) {
+        lock.readLock().lock();
+        try {
+            boolean anyType = type == null || type.isEmpty();
+            int typeCode = anyType ? StringDictionary.NO_CODE : StringDictionary.TYPES.keyCodeOf(type);
+            if (!anyType && typeCode == StringDictionary.NO_CODE) {
+                return new BitSet();
+            }
+            byte removed = (byte) CarStatus.REMOVE_FROM_AUTO_PARK.ordinal();
+            long[] words = new long[(size + 63) >>> 6];
+            for (int row = 0; row < size; row++) {
+                boolean active = statuses.get(row) != removed
+                        && (anyType || StringDictionary.TYPES.keyCodeOf(types.getInt(row * Integer.BYTES)) == typeCode);
+                words[row >>> 6] |= (active ? 1L : 0L) << row;
+            }
+            return BitSet.valueOf(words);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByType(String type) {
+        return rowsByType(type).cardinality();
+    }
+
+    public BitSet rowsByType(String type) {
+        lock.readLock().lock();
+        try {
+            int typeCode = StringDictionary.TYPES.keyCodeOf(type);
+            if (typeCode == StringDictionary.NO_CODE) {
+                return new BitSet();
+            }
+            long[] words = new long[(size + 63) >>> 6];
+            for (int row = 0; row < size; row++) {
+                words[row >>> 6] |= (StringDictionary.TYPES.keyCodeOf(types.getInt(row * Integer.BYTES)) == typeCode ? 1L : 0L) << row;
+            }
+            return BitSet.valueOf(words);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = years.capacity() + statuses.capacity() + makes.capacity() + models.capacity() + types.capacity()
+                    + rentalStartDays.capacity() + expectedReturnDays.capacity() + rateCents.capacity() + idSlots.capacity();
+            for (StringColumn column : strings) {
+                bytes += column.capacityBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    String stringAt(int column, int row) {
+        lock.readLock().lock();
+        try {
+            return strings[column].get(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    String idAt(int row) {
+        return stringAt(ID, row);
+    }
+
+    String makeAt(int row) {
+        return StringDictionary.MAKES.valueOf(codeAt(makes, row));
+    }
+
+    String modelAt(int row) {
+        return StringDictionary.MODELS.valueOf(codeAt(models, row));
+    }
+
+    String typeAt(int row) {
+        return StringDictionary.TYPES.valueOf(codeAt(types, row));
+    }
+
+    int makeCodeAt(int row) {
+        return codeAt(makes, row);
+    }
+
+    int modelCodeAt(int row) {
+        return codeAt(models, row);
+    }
+
+    int typeCodeAt(int row) {
+        return StringDictionary.TYPES.keyCodeOf(codeAt(types, row));
+    }
+
+    String renterIdAt(int row) {
+        return stringAt(RENTER_ID, row);
+    }
+
+    int yearAt(int row) {
+        lock.readLock().lock();
+        try {
+            return years.getInt(row * Integer.BYTES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    CarStatus statusAt(int row) {
+        lock.readLock().lock();
+        try {
+            return CAR_STATUSES[statuses.get(row)];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    LocalDate rentalStartDateAt(int row) {
+        lock.readLock().lock();
+        try {
+            return dateOf(rentalStartDays, row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    LocalDate expectedReturnDateAt(int row) {
+        lock.readLock().lock();
+        try {
+            return dateOf(expectedReturnDays, row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    double dailyRateAt(int row) {
+        lock.readLock().lock();
+        try {
+            return rateCents.getLong(row * Long.BYTES) / 100.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isDirty(int row) {
+        lock.readLock().lock();
+        try {
+            return dirtyRows.get(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void markClean(int row) {
+        lock.writeLock().lock();
+        try {
+            dirtyRows.clear(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean modify(int row, Consumer<Car> change) {
+        lock.writeLock().lock();
+        try {
+            Car values = materialize(row);
+            change.accept(values);
+            boolean changed = update(row, values);
+            if (changed) {
+                dirtyRows.set(row);
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean update(int row, Car values) {
+        lock.writeLock().lock();
+        try {
+            boolean changed = !values.getId().equals(strings[ID].get(row));
+            if (changed) {
+                if (findRow(values.getId()) >= 0) {
+                    throw new IllegalArgumentException("Car with ID " + values.getId() + " already exists.");
+                }
+                strings[ID].set(row, values.getId());
+                rebuildSlots();
+            }
+            changed |= years.getInt(row * Integer.BYTES) != values.getYear();
+            years.putInt(row * Integer.BYTES, values.getYear());
+            changed |= statuses.get(row) != (byte) values.getStatus().ordinal();
+            statuses.put(row, (byte) values.getStatus().ordinal());
+            changed |= putCode(makes, row, values.getMakeCode());
+            changed |= putCode(models, row, values.getModelCode());
+            changed |= putCode(types, row, values.getTypeCode());
+            Car current = materialize(row);
+            changed |= !sameRental(current, values);
+            writeRental(row, values.getCurrentRenterId(), values.getRentalStartDate(), values.getExpectedReturnDate(),
+                    values.getDailyRate());
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean sameRental(Car current, Car values) {
+        return Objects.equals(current.getCurrentRenterId(), values.getCurrentRenterId())
+                && Objects.equals(current.getRentalStartDate(), values.getRentalStartDate())
+                && Objects.equals(current.getExpectedReturnDate(), values.getExpectedReturnDate())
+                && Math.round(current.getDailyRate() * 100) == Math.round(values.getDailyRate() * 100);
+    }
+
+    private void writeRental(int row, String renterId, LocalDate rentalStartDate, LocalDate expectedReturnDate,
+                             double dailyRate) {
+        strings[RENTER_ID].set(row, renterId);
+        rentalStartDays.putInt(row * Integer.BYTES, rentalStartDate != null ? (int) rentalStartDate.toEpochDay() : NO_DATE);
+        expectedReturnDays.putInt(row * Integer.BYTES, expectedReturnDate != null ? (int) expectedReturnDate.toEpochDay() : NO_DATE);
+        rateCents.putLong(row * Long.BYTES, Math.round(dailyRate * 100));
+    }
+
+    private static boolean putCode(ByteBuffer column, int row, int code) {
+        boolean changed = column.getInt(row * Integer.BYTES) != code;
+        column.putInt(row * Integer.BYTES, code);
+        return changed;
+    }
+
+    private int codeAt(ByteBuffer column, int row) {
+        lock.readLock().lock();
+        try {
+            return column.getInt(row * Integer.BYTES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String valueOf(StringDictionary dictionary, ByteBuffer column, int row) {
+        return dictionary.valueOf(column.getInt(row * Integer.BYTES));
+    }
+
+    private static LocalDate dateOf(ByteBuffer column, int row) {
+        int day = column.getInt(row * Integer.BYTES);
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " is outside the store of " + size() + " cars.");
+        }
+    }
+
+    private int findRow(String id) {
+        if (id == null) {
+            return -1;
+        }
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int mask = idSlots.capacity() / Integer.BYTES - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            int entry = idSlots.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (strings[ID].equalsAt(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void insertSlot(int row) {
+        int mask = idSlots.capacity() / Integer.BYTES - 1;
+        int slot = hash(strings[ID].get(row)) & mask;
+        while (idSlots.getInt(slot * Integer.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idSlots.putInt(slot * Integer.BYTES, row + 1);
+    }
+
+    private void rebuildSlots() {
+        idSlots = allocate(slotCountFor(capacity) * Integer.BYTES);
+        for (int row = 0; row < size; row++) {
+            insertSlot(row);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+        int grown = Math.max(required, capacity * 2);
+        years = grow(years, grown * Integer.BYTES);
+        statuses = grow(statuses, grown);
+        makes = grow(makes, grown * Integer.BYTES);
+        models = grow(models, grown * Integer.BYTES);
+        types = grow(types, grown * Integer.BYTES);
+        rentalStartDays = grow(rentalStartDays, grown * Integer.BYTES);
+        expectedReturnDays = grow(expectedReturnDays, grown * Integer.BYTES);
+        rateCents = grow(rateCents, grown * Long.BYTES);
+        for (StringColumn column : strings) {
+            column.growRows(grown);
+        }
+        capacity = grown;
+        rebuildSlots();
+    }
+
+    private static int slotCountFor(int rows) {
+        return Integer.highestOneBit(Math.max(16, rows) * 2 - 1) << 1;
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int bytes) {
+        ByteBuffer grown = allocate(bytes);
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+
+    private static class StringColumn {
+        private ByteBuffer offsets;
+        private ByteBuffer lengths;
+        private ByteBuffer bytes;
+        private int used;
+
+        private StringColumn(int rows) {
+            offsets = allocate(rows * Integer.BYTES);
+            lengths = allocate(rows * Integer.BYTES);
+            for (int row = 0; row < rows; row++) {
+                lengths.putInt(row * Integer.BYTES, -1);
+            }
+            bytes = allocate(rows * 8);
+        }
+
+        private String get(int row) {
+            int length = lengths.getInt(row * Integer.BYTES);
+            if (length < 0) {
+                return null;
+            }
+            byte[] value = new byte[length];
+            bytes.get(offsets.getInt(row * Integer.BYTES), value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        private boolean equalsAt(int row, byte[] key) {
+            if (lengths.getInt(row * Integer.BYTES) != key.length) {
+                return false;
+            }
+            int offset = offsets.getInt(row * Integer.BYTES);
+            for (int i = 0; i < key.length; i++) {
+                if (bytes.get(offset + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void set(int row, String value) {
+            if (value == null) {
+                lengths.putInt(row * Integer.BYTES, -1);
+                return;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            int currentLength = lengths.getInt(row * Integer.BYTES);
+            int offset;
+            if (currentLength >= encoded.length) {
+                offset = offsets.getInt(row * Integer.BYTES);
+            } else {
+                if (used + encoded.length > bytes.capacity()) {
+                    compact(encoded.length);
+                }
+                offset = used;
+                used += encoded.length;
+            }
+            bytes.put(offset, encoded);
+            offsets.putInt(row * Integer.BYTES, offset);
+            lengths.putInt(row * Integer.BYTES, encoded.length);
+        }
+
+        private void compact(int extraBytes) {
+            int rows = offsets.capacity() / Integer.BYTES;
+            int live = 0;
+            for (int row = 0; row < rows; row++) {
+                live += Math.max(0, lengths.getInt(row * Integer.BYTES));
+            }
+            ByteBuffer packed = allocate(Math.max(bytes.capacity(), (live + extraBytes) * 2));
+            int position = 0;
+            byte[] value = new byte[64];
+            for (int row = 0; row < rows; row++) {
+                int length = lengths.getInt(row * Integer.BYTES);
+                if (length <= 0) {
+                    continue;
+                }
+                if (value.length < length) {
+                    value = new byte[length];
+                }
+                bytes.get(offsets.getInt(row * Integer.BYTES), value, 0, length);
+                packed.put(position, value, 0, length);
+                offsets.putInt(row * Integer.BYTES, position);
+                position += length;
+            }
+            bytes = packed;
+            used = position;
+        }
+
+        private void growRows(int rows) {
+            int previousRows = offsets.capacity() / Integer.BYTES;
+            offsets = grow(offsets, rows * Integer.BYTES);
+            lengths = grow(lengths, rows * Integer.BYTES);
+            for (int row = previousRows; row < rows; row++) {
+                lengths.putInt(row * Integer.BYTES, -1);
+            }
+        }
+
+        private long capacityBytes() {
+            return (long) offsets.capacity() + lengths.capacity() + bytes.capacity();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sirma.academy.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionPool {
+    public static final int DEFAULT_MAX_CONNECTIONS = 8;
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxConnections;
+    private final BlockingQueue<Connection> idle;
+    private int openConnections;
+    private int references = 1;
+    private boolean closed;
+
+    public ConnectionPool(String url) {
+        this(url, null, null, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxConnections) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.idle = new ArrayBlockingQueue<>(this.maxConnections);
+    }
+
+    public Connection borrow() throws SQLException {
+        while (true) {
+            Connection connection = idle.poll();
+            if (connection == null && reserveConnection()) {
+                try {
+                    return open();
+                } catch (SQLException e) {
+                    releaseReservation();
+                    throw e;
+                }
+            }
+            if (connection == null) {
+                try {
+                    connection = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection to " + url + ".");
+                }
+                if (connection == null) {
+                    throw new SQLException("Timed out waiting for a connection to " + url + ".");
+                }
+            }
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return connection;
+            }
+            discard(connection);
+        }
+    }
+
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (isClosed() || connection.isClosed() || !connection.getAutoCommit()) {
+                discard(connection);
+                return;
+            }
+        } catch (SQLException e) {
+            discard(connection);
+            return;
+        }
+        if (!idle.offer(connection)) {
+            discard(connection);
+        }
+    }
+
+    public synchronized ConnectionPool retain() {
+        if (closed) {
+            throw new IllegalStateException("Connection pool for " + url + " is closed.");
+        }
+        references++;
+        return this;
+    }
+
+    public synchronized void close() {
+        if (closed || --references > 0) {
+            return;
+        }
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        return user == null ? DriverManager.getConnection(url) : DriverManager.getConnection(url, user, password);
+    }
+
+    private synchronized boolean reserveConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + url + " is closed.");
+        }
+        if (openConnections >= maxConnections) {
+            return false;
+        }
+        openConnections++;
+        return true;
+    }
+
+    private synchronized void releaseReservation() {
+        openConnections--;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void discard(Connection connection) {
+        releaseReservation();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing connection to " + url + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.sirma.academy.service;
+
+public interface CsvFormatter<T> {
+
+    void format(T item, CsvWriter out);
+}
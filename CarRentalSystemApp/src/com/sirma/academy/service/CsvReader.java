@@ -0,0 +1,341 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.StringDictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+public class CsvReader implements CsvRecord, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final Reader reader;
+    private final CharBuffer buffer;
+    private char[] chars;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = CharBuffer.allocate(BUFFER_SIZE);
+        this.chars = buffer.array();
+    }
+
+    public CsvReader(CharBuffer source) {
+        this.reader = null;
+        this.buffer = source;
+        if (source.hasArray()) {
+            this.chars = source.array();
+            this.position = source.arrayOffset() + source.position();
+            this.limit = source.arrayOffset() + source.limit();
+        } else {
+            this.chars = new char[source.remaining()];
+            source.duplicate().get(chars);
+            this.position = 0;
+            this.limit = chars.length;
+        }
+        this.endOfInput = true;
+    }
+
+    public boolean next() throws IOException {
+        if (position >= limit && !fill()) {
+            return false;
+        }
+
+        fieldCount = 0;
+        recordLength = 0;
+        boolean inQuotes = false;
+        startField();
+        while (position < limit || fill()) {
+            char ch = chars[position++];
+            if (inQuotes) {
+                if (ch != '"') {
+                    append(ch);
+                } else if ((position < limit || fill()) && chars[position] == '"') {
+                    append('"');
+                    position++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (ch == ',') {
+                endField();
+                startField();
+            } else if (ch == '\n') {
+                break;
+            } else if (ch == '\r') {
+                if ((position < limit || fill()) && chars[position] == '\n') {
+                    position++;
+                }
+                break;
+            } else if (ch == '"' && recordLength == fieldStarts[fieldCount]) {
+                inQuotes = true;
+            } else {
+                append(ch);
+            }
+        }
+        endField();
+        return true;
+    }
+
+    public boolean isBlank() {
+        if (fieldCount != 1) {
+            return false;
+        }
+        for (int i = fieldStarts[0]; i < fieldEnds[0]; i++) {
+            if (!Character.isWhitespace(record[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    @Override
+    public String field(int index) {
+        checkIndex(index);
+        return new String(record, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    @Override
+    public String internedField(int index, StringDictionary dictionary) {
+        checkIndex(index);
+        return dictionary.intern(record, fieldStarts[index], fieldEnds[index]);
+    }
+
+    @Override
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return fieldStarts[index] == fieldEnds[index];
+    }
+
+    @Override
+    public boolean fieldEquals(int index, String value) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int length = fieldEnds[index] - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (record[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean fieldStartsWith(int index, String prefix) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        if (fieldEnds[index] - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (record[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int intField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = record[start] == '-';
+        int i = negative || record[start] == '+' ? start + 1 : start;
+        if (i == end || end - i > 9) {
+            return Integer.parseInt(field(index));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + field(index) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    @Override
+    public double doubleField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        boolean negative = start < end && record[start] == '-';
+        int i = negative || (start < end && record[start] == '+') ? start + 1 : start;
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char ch = record[i];
+            if (ch >= '0' && ch <= '9') {
+                mantissa = mantissa * 10 + (ch - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (ch == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(field(index));
+            }
+        }
+        if (digits == 0 || digits > 15) {
+            return Double.parseDouble(field(index));
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    @Override
+    public LocalDate dateField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        if (fieldEnds[index] - start != 10 || record[start + 4] != '-' || record[start + 7] != '-') {
+            return LocalDate.parse(field(index));
+        }
+        int year = digits(start, 4);
+        int month = digits(start + 5, 2);
+        int day = digits(start + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return LocalDate.parse(field(index));
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException(e.getMessage(), field(index), 0, e);
+        }
+    }
+
+    @Override
+    public <E extends Enum<E>> E enumField(int index, E[] values) {
+        for (E value : values) {
+            if (fieldEquals(index, value.name())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + field(index));
+    }
+
+    @Override
+    public String line() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(escape(field(i)));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = reader.read(buffer);
+        } while (read == 0);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void append(char ch) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = ch;
+    }
+
+    private void startField() {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = recordLength;
+    }
+
+    private void endField() {
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + fieldCount);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.StringDictionary;
+
+import java.time.LocalDate;
+
+public interface CsvRecord {
+
+    int fieldCount();
+
+    String field(int index);
+
+    default String internedField(int index, StringDictionary dictionary) {
+        return dictionary.intern(field(index));
+    }
+
+    boolean isEmpty(int index);
+
+    boolean fieldEquals(int index, String value);
+
+    boolean fieldStartsWith(int index, String prefix);
+
+    int intField(int index);
+
+    double doubleField(int index);
+
+    LocalDate dateField(int index);
+
+    <E extends Enum<E>> E enumField(int index, E[] values);
+
+    String line();
+
+    default CsvRecord slice(int from) {
+        CsvRecord source = this;
+        return new CsvRecord() {
+            @Override
+            public int fieldCount() {
+                return source.fieldCount() - from;
+            }
+
+            @Override
+            public String field(int index) {
+                return source.field(from + index);
+            }
+
+            @Override
+            public String internedField(int index, StringDictionary dictionary) {
+                return source.internedField(from + index, dictionary);
+            }
+
+            @Override
+            public boolean isEmpty(int index) {
+                return source.isEmpty(from + index);
+            }
+
+            @Override
+            public boolean fieldEquals(int index, String value) {
+                return source.fieldEquals(from + index, value);
+            }
+
+            @Override
+            public boolean fieldStartsWith(int index, String prefix) {
+                return source.fieldStartsWith(from + index, prefix);
+            }
+
+            @Override
+            public int intField(int index) {
+                return source.intField(from + index);
+            }
+
+            @Override
+            public double doubleField(int index) {
+                return source.doubleField(from + index);
+            }
+
+            @Override
+            public LocalDate dateField(int index) {
+                return source.dateField(from + index);
+            }
+
+            @Override
+            public <E extends Enum<E>> E enumField(int index, E[] values) {
+                return source.enumField(from + index, values);
+            }
+
+            @Override
+            public String line() {
+                return source.line();
+            }
+        };
+    }
+}
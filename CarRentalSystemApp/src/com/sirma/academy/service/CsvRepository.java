@@ -0,0 +1,135 @@
+package com.sirma.academy.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class CsvRepository<T> implements Repository<T> {
+    private final String entityName;
+    private final String filePath;
+    private final String snapshotPath;
+    private final String header;
+    private final Function<CsvRecord, T> parser;
+    private final CsvFormatter<T> formatter;
+    private final BinaryCodec<T> codec;
+    private final Function<T, String> idOf;
+    private final FileService fileService;
+    private final JournalService journalService;
+
+    public CsvRepository(String entityName, String filePath, String header, Function<CsvRecord, T> parser,
+                         CsvFormatter<T> formatter, BinaryCodec<T> codec, Function<T, String> idOf, Durability durability) {
+        this.entityName = entityName;
+        this.filePath = filePath;
+        this.snapshotPath = filePath + ".bin";
+        this.header = header;
+        this.parser = parser;
+        this.formatter = formatter;
+        this.codec = codec;
+        this.idOf = idOf;
+        this.fileService = new FileService(true);
+        this.journalService = new JournalService(filePath + ".journal", durability);
+    }
+
+    @Override
+    public List<T> loadAll() {
+        String sourcePath = snapshotPath;
+        boolean previousGeneration = false;
+        List<T> snapshot = fileService.isNewer(snapshotPath, filePath) ? fileService.loadBinary(snapshotPath, codec) : null;
+        if (snapshot == null) {
+            Path readable = fileService.resolveReadablePath(filePath);
+            sourcePath = readable != null ? readable.toString() : filePath;
+            previousGeneration = fileService.isPreviousGeneration(readable, filePath);
+            snapshot = readable != null ? fileService.loadData(readable, parser) : fileService.loadData(filePath, parser);
+        }
+
+        Map<String, T> loaded = new LinkedHashMap<>();
+        for (T item : snapshot) {
+            if (item == null) {
+                continue;
+            }
+            if (loaded.putIfAbsent(idOf.apply(item), item) != null) {
+                System.err.println("Skipping duplicate " + entityName + " ID " + idOf.apply(item) + " in " + sourcePath);
+            }
+        }
+
+        Consumer<CsvRecord> replay = entry -> {
+            if (JournalService.isUpsert(entry)) {
+                T item = parser.apply(entry.slice(1));
+                if (item != null) {
+                    loaded.put(idOf.apply(item), item);
+                }
+            } else if (JournalService.isDelete(entry)) {
+                loaded.remove(entry.field(1));
+            } else {
+                System.err.println("Skipping unsupported " + entityName + " journal entry: " + entry.line());
+            }
+        };
+        int journalEntries = previousGeneration ? journalService.forEachPreviousGenerationEntry(replay) : 0;
+        journalEntries += journalService.forEachEntry(replay);
+
+        System.out.println("Loaded " + loaded.size() + " " + entityName + "s from " + sourcePath
+                + (journalEntries == 0 ? "" : " (replayed " + journalEntries + " journal entries)"));
+        return new ArrayList<>(loaded.values());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> save(T item) {
+        return journalService.submitUpsert(CsvWriter.formatRecord(formatter, item));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveAll(List<T> items) {
+        List<String> records = new ArrayList<>(items.size());
+        for (T item : items) {
+            records.add(CsvWriter.formatRecord(formatter, item));
+        }
+        return journalService.submitUpserts(records);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String id) {
+        return journalService.submitDelete(id);
+    }
+
+    @Override
+    public boolean needsCompaction() {
+        return journalService.needsCompaction();
+    }
+
+    @Override
+    public boolean compact(List<T> items) {
+        if (!fileService.saveData(filePath, header, items, formatter)) {
+            System.err.println("Failed to compact " + entityName + " journal into " + filePath + ". Journal is kept.");
+            return false;
+        }
+        if (!fileService.verify(filePath)) {
+            System.err.println("Compacted " + entityName + " file " + filePath + " failed verification. Journal is kept.");
+            return false;
+        }
+        if (!fileService.saveBinary(snapshotPath, items, codec)) {
+            System.err.println("Failed to write " + entityName + " snapshot " + snapshotPath + ". Journal is kept.");
+            return false;
+        }
+        return journalService.rotate();
+    }
+
+    @Override
+    public boolean await(CompletableFuture<Boolean> pendingWrite) {
+        return journalService.await(pendingWrite);
+    }
+
+    @Override
+    public boolean flush() {
+        return journalService.flush();
+    }
+
+    @Override
+    public void close() {
+        journalService.close();
+    }
+}
@@ -0,0 +1,237 @@
+package com.sirma.academy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+public class CsvWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double MAX_FIXED_POINT_MONEY = 1e15;
+    private static final ThreadLocal<CsvWriter> LINE_WRITERS = ThreadLocal.withInitial(() -> new CsvWriter(null));
+
+    private final FileChannel channel;
+    private final CRC32 checksum = new CRC32();
+    private final byte[] digits = new byte[20];
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean firstField = true;
+
+    public CsvWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static <T> String formatRecord(CsvFormatter<T> formatter, T item) {
+        CsvWriter out = LINE_WRITERS.get();
+        out.buffer.clear();
+        out.firstField = true;
+        formatter.format(item, out);
+        return new String(out.buffer.array(), 0, out.buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    public void writeField(String value) {
+        separate();
+        if (value == null) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            writeChars(value);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writeByte('"');
+            }
+            i = writeChar(value, i);
+        }
+        writeByte('"');
+    }
+
+    public void writeInt(int value) {
+        separate();
+        writeDigits(value);
+    }
+
+    public void writeEnum(Enum<?> value) {
+        separate();
+        if (value != null) {
+            writeChars(value.name());
+        }
+    }
+
+    public void writeMoney(double value) {
+        separate();
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= MAX_FIXED_POINT_MONEY) {
+            writeChars(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        long cents = Math.round(Math.abs(value) * 100);
+        if (value < 0 && cents != 0) {
+            writeByte('-');
+        }
+        writeDigits(cents / 100);
+        writeByte('.');
+        int fraction = (int) (cents % 100);
+        writeByte('0' + fraction / 10);
+        writeByte('0' + fraction % 10);
+    }
+
+    public void writeDate(LocalDate value) {
+        separate();
+        if (value == null) {
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            writeChars(value.toString());
+            return;
+        }
+        writePadded(year, 4);
+        writeByte('-');
+        writePadded(value.getMonthValue(), 2);
+        writeByte('-');
+        writePadded(value.getDayOfMonth(), 2);
+    }
+
+    public void writeRaw(String value) {
+        separate();
+        if (value != null) {
+            writeChars(value);
+        }
+    }
+
+    public void endRecord() {
+        writeByte('\n');
+        firstField = true;
+    }
+
+    public long checksum() {
+        return checksum.getValue();
+    }
+
+    void flush() {
+        if (channel == null) {
+            return;
+        }
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private void separate() {
+        if (firstField) {
+            firstField = false;
+        } else {
+            writeByte(',');
+        }
+    }
+
+    private void writeChars(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        int i = 0;
+        if (buffer.remaining() >= length) {
+            byte[] bytes = buffer.array();
+            int position = buffer.position();
+            while (i < length && value.charAt(i) < 0x80) {
+                bytes[position++] = (byte) value.charAt(i++);
+            }
+            buffer.position(position);
+        }
+        for (; i < length; i++) {
+            i = writeChar(value, i);
+        }
+    }
+
+    private int writeChar(String value, int index) {
+        char c = value.charAt(index);
+        ensureCapacity(4);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return index;
+    }
+
+    private void writeDigits(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeChars(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensureCapacity(digits.length - start);
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    private void writePadded(int value, int width) {
+        ensureCapacity(width);
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer.put((byte) value);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (channel != null) {
+            flush();
+        } else {
+            ByteBuffer grown = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.capacity() * 2));
+            grown.position(buffer.position());
+            buffer = grown;
+        }
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
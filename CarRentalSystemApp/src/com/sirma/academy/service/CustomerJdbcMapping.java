@@ -0,0 +1,52 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Customer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+public class CustomerJdbcMapping implements JdbcMapping<Customer> {
+    public static final String TABLE = "customers";
+    public static final String EMAIL_COLUMN = "email";
+
+    private static final List<String> COLUMNS = Arrays.asList("id", "name", "phone", EMAIL_COLUMN);
+
+    @Override
+    public String tableName() {
+        return TABLE;
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public List<String> schemaStatements() {
+        return Arrays.asList(
+                "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                        + "id VARCHAR(64) PRIMARY KEY, name VARCHAR(255), phone VARCHAR(64), " + EMAIL_COLUMN + " VARCHAR(255))",
+                "CREATE INDEX IF NOT EXISTS idx_customers_email ON " + TABLE + " (" + EMAIL_COLUMN + ")");
+    }
+
+    @Override
+    public String idOf(Customer customer) {
+        return customer.getId();
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, Customer customer) throws SQLException {
+        statement.setString(1, customer.getId());
+        statement.setString(2, customer.getName());
+        statement.setString(3, customer.getPhoneNumber());
+        statement.setString(4, customer.getEmail());
+    }
+
+    @Override
+    public Customer read(ResultSet row) throws SQLException {
+        return new Customer(row.getString(1), row.getString(2), row.getString(3), row.getString(4));
+    }
+}
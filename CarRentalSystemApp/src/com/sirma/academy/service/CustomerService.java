@@ -3,102 +3,279 @@ package com.sirma.academy.service;
 import com.sirma.academy.model.Customer;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class CustomerService {
-    private List<Customer> customers;
-    private FileService fileService;
+    private Map<String, Customer> customers;
+    private volatile List<Customer> customersView;
+    private volatile Map<String, Customer> customersById;
+    private final SearchIndex<Customer> searchIndex = SearchIndex.ofSearchable();
+    private final Map<CustomerSortOrder, SortedIndex<Customer>> sortedIndexes = new ConcurrentHashMap<>();
+    private final ServiceMetrics metrics = ServiceMetrics.getInstance();
+    private final Repository<Customer> repository;
 
     private static final String FILE_PATH = "src/com/sirma/academy/data/customers.csv";
     private static final String CSV_HEADER = "id,name,phone,email";
 
-    private final Function<String, Customer> customerParser = line -> {
-        String[] parts = line.split(",");
-        if (parts.length != 4) {
-            System.err.println("Skipping malformed customer line (expected 4 parts): " + line);
+    private static final Function<CsvRecord, Customer> CUSTOMER_PARSER = record -> {
+        if (record.fieldCount() != 4) {
+            System.err.println("Skipping malformed customer line (expected 4 parts): " + record.line());
             return null;
         }
         try {
-            String id = parts[0];
-            String name = parts[1];
-            String phoneNumber = parts[2];
-            String email = parts[3];
+            String id = record.field(0);
+            String name = record.field(1);
+            String phoneNumber = record.field(2);
+            String email = record.field(3);
             return new Customer(id, name, phoneNumber, email);
         } catch (Exception e) {
-            System.err.println("Error parsing customer line: " + line + ". " + e.getMessage());
+            System.err.println("Error parsing customer line: " + record.line() + ". " + e.getMessage());
             return null;
         }
     };
 
-    private final Function<Customer, String> customerFormatter = customer ->
-            customer.getId() + "," +
-                    customer.getName() + "," +
-                    customer.getPhoneNumber() + "," +
-                    customer.getEmail();
+    private static final CsvFormatter<Customer> CUSTOMER_CSV_FORMATTER = (customer, out) -> {
+        out.writeField(customer.getId());
+        out.writeField(customer.getName());
+        out.writeField(customer.getPhoneNumber());
+        out.writeField(customer.getEmail());
+    };
+
+
+    private static final BinaryCodec<Customer> CUSTOMER_CODEC = new BinaryCodec<Customer>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(Customer customer, BinaryWriter out) {
+            out.writeString(customer.getId());
+            out.writeString(customer.getName());
+            out.writeString(customer.getPhoneNumber());
+            out.writeString(customer.getEmail());
+        }
+
+        @Override
+        public Customer read(BinaryReader in) {
+            return new Customer(in.readString(), in.readString(), in.readString(), in.readString());
+        }
+    };
 
 
     public CustomerService() {
-        this.fileService = new FileService();
+        this(FILE_PATH);
+    }
+
+    public CustomerService(String filePath) {
+        this(filePath, Durability.SYNCHRONOUS);
+    }
+
+    public CustomerService(String filePath, Durability durability) {
+        this(csvRepository(filePath, durability));
+    }
+
+    public static Repository<Customer> csvRepository(String filePath, Durability durability) {
+        return new CsvRepository<>("customer", filePath, CSV_HEADER, CUSTOMER_PARSER, CUSTOMER_CSV_FORMATTER,
+                CUSTOMER_CODEC, Customer::getId, durability);
+    }
+
+    public CustomerService(Repository<Customer> repository) {
+        this.repository = repository;
+        reload();
+    }
+
+    public synchronized void reload() {
+        Map<String, Customer> loadedCustomers = new LinkedHashMap<>();
+        for (Customer customer : repository.loadAll()) {
+            loadedCustomers.put(customer.getId(), customer);
+        }
 
-        this.customers = fileService.loadData(FILE_PATH, customerParser).stream()
-                .filter(customer -> customer != null)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        this.customers = loadedCustomers;
+        this.customersView = null;
+        this.customersById = new ConcurrentHashMap<>(loadedCustomers);
+        searchIndex.rebuild(loadedCustomers.values());
+        for (SortedIndex<Customer> sortedIndex : sortedIndexes.values()) {
+            sortedIndex.rebuild(loadedCustomers.values());
+        }
 
-        System.out.println("Loaded " + customers.size() + " customers from " + FILE_PATH);
+        compactIfNeeded();
     }
 
     public boolean addCustomer(Customer customer) {
+        return repository.await(addCustomerAsync(customer));
+    }
+
+    public synchronized CompletableFuture<Boolean> addCustomerAsync(Customer customer) {
         if (customer == null || customer.getId() == null || customer.getId().isEmpty()) {
             System.out.println("Invalid customer data provided. Cannot add/update customer.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
-        Optional<Customer> existingCustomerOpt = customers.stream()
-                .filter(c -> c.getId().equals(customer.getId()))
-                .findFirst();
+        Customer existingCustomer = customersById.get(customer.getId());
 
-        if (existingCustomerOpt.isPresent()) {
-            Customer existingCustomer = existingCustomerOpt.get();
+        if (existingCustomer != null) {
             existingCustomer.setName(customer.getName());
             existingCustomer.setPhoneNumber(customer.getPhoneNumber());
             existingCustomer.setEmail(customer.getEmail());
+            if (!existingCustomer.isDirty()) {
+                System.out.println("Customer with ID " + customer.getId() + " has no changes to save.");
+                return CompletableFuture.completedFuture(true);
+            }
+            searchIndex.index(existingCustomer);
+            indexSorted(existingCustomer);
             System.out.println("Customer with ID " + customer.getId() + " updated successfully in memory.");
+            return persist(existingCustomer);
         } else {
-            this.customers.add(customer);
+            this.customers.put(customer.getId(), customer);
+            this.customersView = null;
+            this.customersById.put(customer.getId(), customer);
+            searchIndex.index(customer);
+            indexSorted(customer);
             System.out.println("Customer with ID " + customer.getId() + " added successfully in memory.");
+            return persist(customer);
         }
-        return saveDataToCustomersFile();
     }
 
     public boolean deleteCustomer(String customerId) {
-        boolean removed = customers.removeIf(customer -> customer.getId().equals(customerId));
-        if (removed) {
+        return repository.await(deleteCustomerAsync(customerId));
+    }
+
+    public synchronized CompletableFuture<Boolean> deleteCustomerAsync(String customerId) {
+        Customer removedCustomer = customersById.remove(customerId);
+        if (removedCustomer != null) {
+            customers.remove(customerId);
+            customersView = null;
+            searchIndex.remove(removedCustomer);
+            for (SortedIndex<Customer> sortedIndex : sortedIndexes.values()) {
+                sortedIndex.remove(customerId);
+            }
             System.out.println("Customer with ID " + customerId + " removed from memory.");
-            return saveDataToCustomersFile();
+            return persistDelete(customerId);
         } else {
             System.out.println("Customer with ID " + customerId + " not found to delete in memory.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
     }
 
-    public boolean saveDataToCustomersFile() {
-        boolean saveSuccessful = fileService.saveData(FILE_PATH, CSV_HEADER, customers, customerFormatter);
-        if (!saveSuccessful) {
-            System.err.println("Failed to save customer data to file.");
+    public synchronized boolean saveDataToCustomersFile() {
+        return repository.compact(getCustomers());
+    }
+
+    public boolean flush() {
+        return repository.flush();
+    }
+
+    public void close() {
+        repository.close();
+    }
+
+    private CompletableFuture<Boolean> persist(Customer customer) {
+        CompletableFuture<Boolean> appended = repository.save(customer);
+        customer.markClean();
+        compactIfNeeded();
+        return appended;
+    }
+
+    private CompletableFuture<Boolean> persistDelete(String customerId) {
+        CompletableFuture<Boolean> appended = repository.delete(customerId);
+        compactIfNeeded();
+        return appended;
+    }
+
+    private void compactIfNeeded() {
+        if (repository.needsCompaction()) {
+            saveDataToCustomersFile();
         }
-        return saveSuccessful;
     }
 
 
+    public Customer findRenter(String renterId) {
+        return renterId == null ? null : customersById.get(renterId);
+    }
+
     public Optional<Customer> findCustomerById(String customerId) {
-        return customers.stream()
-                .filter(customer -> customer.getId().equals(customerId))
-                .findFirst();
+        long start = System.nanoTime();
+        Customer customer = customersById.get(customerId);
+        metrics.recordSince(Metric.CUSTOMER_LOOKUP, start);
+        return Optional.ofNullable(customer);
+    }
+
+    public List<Customer> searchCustomers(String criteria) {
+        long start = System.nanoTime();
+        List<Customer> foundCustomers = searchIndex.canSearch(criteria) ? searchIndex.search(criteria) : scanCustomers(criteria);
+        metrics.recordSince(Metric.CUSTOMER_SEARCH, start);
+        return foundCustomers;
+    }
+
+    private List<Customer> scanCustomers(String criteria) {
+        List<Customer> foundCustomers = new ArrayList<>();
+        for (Customer customer : getCustomers()) {
+            if (customer.matches(criteria)) {
+                foundCustomers.add(customer);
+            }
+        }
+        return foundCustomers;
     }
 
     public List<Customer> getCustomers() {
-        return new ArrayList<>(customers);
+        List<Customer> view = customersView;
+        if (view != null) {
+            return view;
+        }
+        synchronized (this) {
+            if (customersView == null) {
+                customersView = Collections.unmodifiableList(new ArrayList<>(customers.values()));
+            }
+            return customersView;
+        }
+    }
+
+    public Page<Customer> listCustomers(CustomerSortOrder order, PageCursor after, int pageSize) {
+        return sortedIndex(order).page(after, pageSize, customer -> true);
+    }
+
+    public Iterator<Customer> iterateCustomers(CustomerSortOrder order) {
+        return sortedIndex(order).iterator(null);
+    }
+
+    private SortedIndex<Customer> sortedIndex(CustomerSortOrder order) {
+        SortedIndex<Customer> sortedIndex = sortedIndexes.get(order);
+        if (sortedIndex != null) {
+            return sortedIndex;
+        }
+        synchronized (this) {
+            sortedIndex = sortedIndexes.get(order);
+            if (sortedIndex == null) {
+                sortedIndex = order.newIndex();
+                sortedIndex.rebuild(customers.values());
+                sortedIndexes.put(order, sortedIndex);
+            }
+            return sortedIndex;
+        }
+    }
+
+    private void indexSorted(Customer customer) {
+        for (SortedIndex<Customer> sortedIndex : sortedIndexes.values()) {
+            sortedIndex.index(customer);
+        }
+    }
+
+    public void forEachCustomer(Consumer<? super Customer> action) {
+        getCustomers().forEach(action);
+    }
+
+    public Spliterator<Customer> customerSpliterator() {
+        return getCustomers().spliterator();
     }
 }
\ No newline at end of file
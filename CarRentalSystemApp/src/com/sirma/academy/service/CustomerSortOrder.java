@@ -0,0 +1,35 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Customer;
+
+import java.util.function.Function;
+
+public enum CustomerSortOrder {
+    ID("id", customer -> null),
+    NAME("name", Customer::getName);
+
+    private final String label;
+    private final Function<Customer, String> textOf;
+
+    CustomerSortOrder(String label, Function<Customer, String> textOf) {
+        this.label = label;
+        this.textOf = textOf;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static CustomerSortOrder fromLabel(String label) {
+        for (CustomerSortOrder order : values()) {
+            if (order.label.equalsIgnoreCase(label.trim()) || order.name().equalsIgnoreCase(label.trim())) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    SortedIndex<Customer> newIndex() {
+        return new SortedIndex<>(customer -> 0L, textOf, Customer::getId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sirma.academy.service;
+
+public enum Durability {
+    SYNCHRONOUS,
+    WAIT_FOR_FLUSH,
+    FIRE_AND_FORGET
+}
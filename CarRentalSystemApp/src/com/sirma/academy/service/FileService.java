@@ -1,60 +1,470 @@
 package com.sirma.academy.service;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.zip.CRC32;
 
 
 public class FileService {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PREVIOUS_GENERATION_SUFFIX = ".bak";
+    private static final String CHECKSUM_PREFIX = "#crc32=";
+    private static final int CHECKSUM_TAIL_BYTES = 64;
+    private static final long PARALLEL_LOAD_THRESHOLD_BYTES = 32L * 1024 * 1024;
+    private static final long MIN_CHUNK_BYTES = 4L * 1024 * 1024;
+    private static final long MAX_CHUNK_BYTES = 64L * 1024 * 1024;
+    private static final int BINARY_MAGIC = 0x43524253;
+    private static final int BINARY_DICTIONARY_OFFSET_POSITION = 12;
 
+    private final boolean checksumEnabled;
+    private final ServiceMetrics metrics = ServiceMetrics.getInstance();
 
-    public <T> List<T> loadData(String filePath, Function<String, T> parser) {
-        List<T> data = new ArrayList<>();
-        if (!Files.exists(Paths.get(filePath))) {
+    public FileService() {
+        this(false);
+    }
+
+    public FileService(boolean checksumEnabled) {
+        this.checksumEnabled = checksumEnabled;
+    }
+
+
+    public <T> List<T> loadData(String filePath, Function<CsvRecord, T> parser) {
+        long start = System.nanoTime();
+        List<T> data = readData(filePath, parser);
+        metrics.recordSince(Metric.LOAD, start);
+        metrics.record(Metric.LOAD_RECORDS, data.size());
+        return data;
+    }
+
+    public <T> List<T> loadData(Path path, Function<CsvRecord, T> parser) {
+        long start = System.nanoTime();
+        List<T> data = readData(path, parser);
+        metrics.recordSince(Metric.LOAD, start);
+        metrics.record(Metric.LOAD_RECORDS, data.size());
+        return data;
+    }
+
+    private <T> List<T> readData(String filePath, Function<CsvRecord, T> parser) {
+        Path path = resolveReadablePath(filePath);
+        if (path == null) {
             System.out.println("File not found: " + filePath + ". Returning empty list.");
-            return data;
+            return new ArrayList<>();
         }
+        return readData(path, parser);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line = br.readLine();
-            if (line == null) {
-                System.out.println("File " + filePath + " is empty.");
-                return data;
+    private <T> List<T> readData(Path path, Function<CsvRecord, T> parser) {
+        try {
+            if (Files.size(path) >= PARALLEL_LOAD_THRESHOLD_BYTES && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                return loadDataParallel(path, parser);
             }
+        } catch (IOException e) {
+            System.err.println("Error reading size of " + path + ": " + e.getMessage());
+        }
 
-            while ((line = br.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        data.add(parser.apply(line));
-                    } catch (Exception e) {
-                        System.err.println("Error parsing line: '" + line + "' in " + filePath + ". Error: " + e.getMessage());
-                    }
-                }
+        List<T> data = new ArrayList<>();
+        readRecords(path, record -> data.add(parser.apply(record)));
+        return data;
+    }
+
+    public boolean forEachRecord(String filePath, Consumer<CsvRecord> consumer) {
+        Path path = resolveReadablePath(filePath);
+        if (path == null) {
+            System.out.println("File not found: " + filePath + ". Returning empty list.");
+            return false;
+        }
+        return readRecords(path, consumer);
+    }
+
+    private boolean readRecords(Path path, Consumer<CsvRecord> consumer) {
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            if (!reader.next()) {
+                System.out.println("File " + path + " is empty.");
+                return true;
             }
+            consumeRecords(reader, path, consumer);
+            return true;
         } catch (IOException e) {
-            System.err.println("Error loading data from " + filePath + ": " + e.getMessage());
+            System.err.println("Error loading data from " + path + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private <T> List<T> loadDataParallel(Path path, Function<CsvRecord, T> parser) {
+        List<T> data = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.min(MAX_CHUNK_BYTES,
+                    Math.max(MIN_CHUNK_BYTES, size / (ForkJoinPool.getCommonPoolParallelism() * 4L)));
+            List<long[]> chunks = splitAtLineBoundaries(channel, size, chunkSize);
+
+            List<Callable<List<T>>> tasks = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                long start = chunks.get(i)[0];
+                long end = chunks.get(i)[1];
+                boolean skipHeader = i == 0;
+                tasks.add(() -> parseChunk(channel, path, start, end, skipHeader, parser));
+            }
+
+            for (Future<List<T>> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                data.addAll(result.get());
+            }
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error loading data from " + path + ": " + e.getMessage());
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while loading data from " + path + ".");
         }
         return data;
     }
 
+    private <T> List<T> parseChunk(FileChannel channel, Path path, long start, long end,
+                                   boolean skipHeader, Function<CsvRecord, T> parser) throws IOException {
+        List<T> chunkData = new ArrayList<>();
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CsvReader reader = new CsvReader(StandardCharsets.UTF_8.decode(mapped));
+        if (skipHeader && !reader.next()) {
+            return chunkData;
+        }
+        consumeRecords(reader, path, record -> chunkData.add(parser.apply(record)));
+        return chunkData;
+    }
+
+    private List<long[]> splitAtLineBoundaries(FileChannel channel, long size, long chunkSize) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8 * 1024);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int newline = -1;
+                for (int i = 0; i < read && newline < 0; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                    }
+                }
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private void consumeRecords(CsvReader reader, Path path, Consumer<CsvRecord> consumer) throws IOException {
+        while (reader.next()) {
+            if (reader.isBlank() || (reader.fieldCount() == 1 && reader.fieldStartsWith(0, CHECKSUM_PREFIX))) {
+                continue;
+            }
+            try {
+                consumer.accept(reader);
+            } catch (Exception e) {
+                System.err.println("Error parsing line: '" + reader.line() + "' in " + path + ". Error: " + e.getMessage());
+            }
+        }
+    }
+
 
     public <T> boolean saveData(String filePath, String header, List<T> data, Function<T, String> formatter) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
-            bw.write(header);
-            bw.newLine();
-            for (T item : data) {
-                bw.write(formatter.apply(item));
-                bw.newLine();
+        return saveData(filePath, header, data, (T item, CsvWriter out) -> out.writeRaw(formatter.apply(item)));
+    }
+
+    public <T> boolean saveData(String filePath, String header, List<T> data, CsvFormatter<T> formatter) {
+        long start = System.nanoTime();
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + TEMP_SUFFIX);
+        try {
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CsvWriter out = new CsvWriter(channel);
+                out.writeRaw(header);
+                out.endRecord();
+                for (T item : data) {
+                    formatter.format(item, out);
+                    out.endRecord();
+                }
+                out.flush();
+                if (checksumEnabled) {
+                    out.writeRaw(CHECKSUM_PREFIX + Long.toHexString(out.checksum()));
+                    out.endRecord();
+                    out.flush();
+                }
+                channel.force(true);
+                bytes = channel.position();
             }
+
+            keepPreviousGeneration(target);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(target);
+            metrics.recordSince(Metric.SAVE, start);
+            metrics.record(Metric.SAVE_BYTES, bytes);
             return true;
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
+            metrics.recordSince(Metric.SAVE, start, false);
             System.err.println("Error saving data to " + filePath + ": " + e.getMessage());
             e.printStackTrace();
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    public <T> boolean saveBinary(String filePath, List<T> data, BinaryCodec<T> codec) {
+        long start = System.nanoTime();
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + TEMP_SUFFIX);
+        try {
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                BinaryWriter out = new BinaryWriter(channel);
+                out.writeInt(BINARY_MAGIC);
+                out.writeInt(codec.version());
+                out.writeInt(data.size());
+                out.writeLong(0L);
+                for (T item : data) {
+                    codec.write(item, out);
+                }
+
+                long dictionaryOffset = out.position();
+                List<String> dictionary = out.dictionary();
+                out.writeInt(dictionary.size());
+                for (String value : dictionary) {
+                    out.writeString(value);
+                }
+                out.flush();
+
+                ByteBuffer offset = ByteBuffer.allocate(8).putLong(dictionaryOffset);
+                offset.flip();
+                channel.write(offset, BINARY_DICTIONARY_OFFSET_POSITION);
+                channel.force(true);
+                bytes = channel.size();
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(target);
+            metrics.recordSince(Metric.SAVE, start);
+            metrics.record(Metric.SAVE_BYTES, bytes);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            metrics.recordSince(Metric.SAVE, start, false);
+            System.err.println("Error saving binary snapshot to " + filePath + ": " + e.getMessage());
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    public <T> List<T> loadBinary(String filePath, BinaryCodec<T> codec) {
+        long start = System.nanoTime();
+        List<T> data = readBinary(filePath, codec);
+        if (data != null) {
+            metrics.recordSince(Metric.LOAD, start);
+            metrics.record(Metric.LOAD_RECORDS, data.size());
+        }
+        return data;
+    }
+
+    private <T> List<T> readBinary(String filePath, BinaryCodec<T> codec) {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                System.err.println("Binary snapshot " + path + " is too large to map. Falling back to CSV.");
+                return null;
+            }
+
+            BinaryReader in = new BinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            if (in.readInt() != BINARY_MAGIC) {
+                System.err.println("File " + path + " is not a binary snapshot. Falling back to CSV.");
+                return null;
+            }
+            int version = in.readInt();
+            if (version != codec.version()) {
+                System.err.println("Binary snapshot " + path + " has version " + version
+                        + " but " + codec.version() + " is expected. Falling back to CSV.");
+                return null;
+            }
+            int count = in.readInt();
+            long dictionaryOffset = in.readLong();
+            int recordsStart = in.position();
+
+            in.position((int) dictionaryOffset);
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readString();
+            }
+            in.dictionary(dictionary);
+
+            in.position(recordsStart);
+            List<T> data = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                data.add(codec.read(in));
+            }
+            if (in.position() != dictionaryOffset) {
+                System.err.println("Binary snapshot " + path + " is corrupt. Falling back to CSV.");
+                return null;
+            }
+            return data;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading binary snapshot " + path + ": " + e.getMessage() + ". Falling back to CSV.");
+            return null;
+        }
+    }
+
+    public boolean isNewer(String candidatePath, String referencePath) {
+        Path candidate = Paths.get(candidatePath);
+        Path reference = Paths.get(referencePath);
+        if (!Files.exists(candidate)) {
+            return false;
+        }
+        try {
+            return !Files.exists(reference)
+                    || Files.getLastModifiedTime(candidate).compareTo(Files.getLastModifiedTime(reference)) >= 0;
+        } catch (IOException e) {
+            System.err.println("Error comparing modification times of " + candidate + " and " + reference + ": " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public boolean verify(String filePath) {
+        Path path = Paths.get(filePath);
+        return Files.exists(path) && isIntact(path);
+    }
+
+    public boolean isPreviousGeneration(Path path, String filePath) {
+        return path != null && !path.equals(Paths.get(filePath));
+    }
+
+    public Path resolveReadablePath(String filePath) {
+        Path current = Paths.get(filePath);
+        Path previous = Paths.get(filePath + PREVIOUS_GENERATION_SUFFIX);
+
+        if (Files.exists(current)) {
+            if (isIntact(current)) {
+                return current;
+            }
+            if (Files.exists(previous) && isIntact(previous)) {
+                System.err.println("Checksum mismatch in " + current + ". Falling back to previous generation " + previous + ".");
+                return previous;
+            }
+            System.err.println("Checksum mismatch in " + current + " and no intact previous generation. Loading it as is.");
+            return current;
+        }
+        if (Files.exists(previous)) {
+            System.err.println("File " + current + " is missing. Falling back to previous generation " + previous + ".");
+            return previous;
+        }
+        return null;
+    }
+
+    private boolean isIntact(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int tailLength = (int) Math.min(size, CHECKSUM_TAIL_BYTES);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            channel.read(tail, size - tailLength);
+
+            byte[] tailBytes = tail.array();
+            int end = tailLength;
+            while (end > 0 && (tailBytes[end - 1] == '\n' || tailBytes[end - 1] == '\r')) {
+                end--;
+            }
+            int lineStart = end;
+            while (lineStart > 0 && tailBytes[lineStart - 1] != '\n') {
+                lineStart--;
+            }
+            String lastLine = new String(tailBytes, lineStart, end - lineStart, StandardCharsets.US_ASCII);
+            if (!lastLine.startsWith(CHECKSUM_PREFIX)) {
+                return true;
+            }
+            if (lineStart == 0 && size > tailLength) {
+                return false;
+            }
+
+            long expected = Long.parseLong(lastLine.substring(CHECKSUM_PREFIX.length()), 16);
+            long dataLength = size - tailLength + lineStart;
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long position = 0;
+            while (position < dataLength) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), dataLength - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return false;
+                }
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+            return crc.getValue() == expected;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error verifying checksum of " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void keepPreviousGeneration(Path target) throws IOException {
+        if (!Files.exists(target)) {
+            return;
+        }
+        Path previous = Paths.get(target + PREVIOUS_GENERATION_SUFFIX);
+        Files.deleteIfExists(previous);
+        try {
+            Files.createLink(previous, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(target, previous, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static void forceDirectory(Path target) {
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform allows opening a directory for sync; the rename itself is still atomic.
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Car;
+import com.sirma.academy.model.CarStatus;
+import com.sirma.academy.model.StringDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FleetIndex {
+    private final Map<CarStatus, Set<Car>> byStatus = new EnumMap<>(CarStatus.class);
+    private final Map<Integer, Set<Car>> byType = new ConcurrentHashMap<>();
+    private final Map<String, Set<Car>> byRenter = new ConcurrentHashMap<>();
+    private final Map<Car, IndexedKeys> indexedKeys = new IdentityHashMap<>();
+    private final Map<CarStatus, BitSet> statusBits = new EnumMap<>(CarStatus.class);
+    private final Map<Integer, BitSet> typeBits = new HashMap<>();
+    private Car[] carsByOrdinal = new Car[1024];
+    private int nextSequence;
+
+    public FleetIndex() {
+        for (CarStatus status : CarStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+            statusBits.put(status, new BitSet());
+        }
+    }
+
+    public synchronized void rebuild(Collection<Car> cars) {
+        for (Set<Car> statusCars : byStatus.values()) {
+            statusCars.clear();
+        }
+        byType.clear();
+        byRenter.clear();
+        indexedKeys.clear();
+        for (BitSet bits : statusBits.values()) {
+            bits.clear();
+        }
+        typeBits.clear();
+        carsByOrdinal = new Car[Math.max(1024, cars.size())];
+        nextSequence = 0;
+        for (Car car : cars) {
+            index(car);
+        }
+    }
+
+    public synchronized void index(Car car) {
+        IndexedKeys previous = indexedKeys.get(car);
+        IndexedKeys current = new IndexedKeys(car.getStatus(), car.getTypeCode(), car.getCurrentRenterId(),
+                previous != null ? previous.sequence : nextSequence++);
+        if (previous != null) {
+            unindex(car, previous);
+        } else {
+            if (current.sequence == carsByOrdinal.length) {
+                carsByOrdinal = Arrays.copyOf(carsByOrdinal, carsByOrdinal.length * 2);
+            }
+            carsByOrdinal[current.sequence] = car;
+        }
+        if (current.status != null) {
+            byStatus.get(current.status).add(car);
+            statusBits.get(current.status).set(current.sequence);
+        }
+        if (current.typeCode != StringDictionary.NO_CODE) {
+            byType.computeIfAbsent(current.typeCode, key -> ConcurrentHashMap.newKeySet()).add(car);
+            typeBits.computeIfAbsent(current.typeCode, key -> new BitSet()).set(current.sequence);
+        }
+        if (current.renterId != null) {
+            byRenter.computeIfAbsent(current.renterId, key -> ConcurrentHashMap.newKeySet()).add(car);
+        }
+        indexedKeys.put(car, current);
+    }
+
+    public synchronized void remove(Car car) {
+        IndexedKeys previous = indexedKeys.remove(car);
+        if (previous != null) {
+            unindex(car, previous);
+            carsByOrdinal[previous.sequence] = null;
+        }
+    }
+
+    public synchronized int ordinalOf(Car car) {
+        IndexedKeys keys = indexedKeys.get(car);
+        return keys != null ? keys.sequence : -1;
+    }
+
+    public synchronized Car carAt(int ordinal) {
+        return ordinal >= 0 && ordinal < nextSequence ? carsByOrdinal[ordinal] : null;
+    }
+
+    public synchronized BitSet activeCarBits(String type) {
+        BitSet bits;
+        if (type == null || type.isEmpty()) {
+            bits = (BitSet) statusBits.get(CarStatus.AVAILABLE).clone();
+            bits.or(statusBits.get(CarStatus.RENTED));
+        } else {
+            BitSet typeCars = typeBits.get(typeCodeOf(type));
+            bits = typeCars == null ? new BitSet() : (BitSet) typeCars.clone();
+            bits.andNot(statusBits.get(CarStatus.REMOVE_FROM_AUTO_PARK));
+        }
+        return bits;
+    }
+
+    public List<Car> findByStatus(CarStatus status) {
+        return inFleetOrder(byStatus.get(status));
+    }
+
+    public List<Car> findByType(String type) {
+        return inFleetOrder(byType.get(typeCodeOf(type)));
+    }
+
+    public List<Car> findByRenter(String renterId) {
+        return renterId == null ? new ArrayList<>() : inFleetOrder(byRenter.get(renterId));
+    }
+
+    public int countByStatus(CarStatus status) {
+        return byStatus.get(status).size();
+    }
+
+    public int countByType(String type) {
+        Set<Car> typeCars = byType.get(typeCodeOf(type));
+        return typeCars == null ? 0 : typeCars.size();
+    }
+
+    private void unindex(Car car, IndexedKeys keys) {
+        if (keys.status != null) {
+            byStatus.get(keys.status).remove(car);
+            statusBits.get(keys.status).clear(keys.sequence);
+        }
+        if (typeBits.containsKey(keys.typeCode)) {
+            typeBits.get(keys.typeCode).clear(keys.sequence);
+        }
+        removeFrom(byType, keys.typeCode, car);
+        removeFrom(byRenter, keys.renterId, car);
+    }
+
+    private List<Car> inFleetOrder(Set<Car> cars) {
+        List<Car> result = cars == null ? new ArrayList<>() : new ArrayList<>(cars);
+        synchronized (this) {
+            result.sort(Comparator.comparingLong(car -> {
+                IndexedKeys keys = indexedKeys.get(car);
+                return keys != null ? keys.sequence : Long.MAX_VALUE;
+            }));
+        }
+        return result;
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Car>> index, K key, Car car) {
+        if (key == null) {
+            return;
+        }
+        Set<Car> cars = index.get(key);
+        if (cars != null) {
+            cars.remove(car);
+            if (cars.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int typeCodeOf(String type) {
+        return StringDictionary.TYPES.keyCodeOf(type);
+    }
+
+    private static final class IndexedKeys {
+        private final CarStatus status;
+        private final int typeCode;
+        private final String renterId;
+        private final int sequence;
+
+        private IndexedKeys(CarStatus status, int typeCode, String renterId, int sequence) {
+            this.status = status;
+            this.typeCode = typeCode;
+            this.renterId = renterId;
+            this.sequence = sequence;
+        }
+    }
+}
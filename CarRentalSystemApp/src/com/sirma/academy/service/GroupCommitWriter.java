@@ -0,0 +1,118 @@
+package com.sirma.academy.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public class GroupCommitWriter {
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final Function<List<String>, Boolean> sink;
+    private final long flushIntervalNanos;
+    private final int maxBatchSize;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public GroupCommitWriter(String name, Function<List<String>, Boolean> sink,
+                             int queueCapacity, long flushIntervalMillis, int maxBatchSize) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sink = sink;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.writerThread = new Thread(this::run, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public synchronized CompletableFuture<Boolean> submit(List<String> entries) {
+        PendingWrite write = new PendingWrite(entries);
+        if (closed) {
+            write.future.complete(write(entries));
+            return write.future;
+        }
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while queueing " + entries.size() + " entries for " + writerThread.getName());
+            write.future.complete(false);
+        }
+        return write.future;
+    }
+
+    public boolean flush() {
+        return submit(new ArrayList<>()).join();
+    }
+
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while waiting for " + writerThread.getName() + " to finish.");
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>();
+        List<String> entries = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                entries.addAll(first.entries);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (entries.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    entries.addAll(next.entries);
+                }
+            } catch (InterruptedException e) {
+                System.err.println(writerThread.getName() + " was interrupted; flushing pending entries.");
+            }
+
+            if (!batch.isEmpty()) {
+                boolean written = write(entries);
+                for (PendingWrite write : batch) {
+                    write.future.complete(written);
+                }
+                batch.clear();
+                entries.clear();
+            }
+        }
+    }
+
+    private boolean write(List<String> entries) {
+        try {
+            return sink.apply(entries);
+        } catch (RuntimeException e) {
+            System.err.println("Error writing " + entries.size() + " entries in " + writerThread.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static final class PendingWrite {
+        private final List<String> entries;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private PendingWrite(List<String> entries) {
+            this.entries = entries;
+        }
+    }
+}
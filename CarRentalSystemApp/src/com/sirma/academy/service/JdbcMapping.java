@@ -0,0 +1,21 @@
+package com.sirma.academy.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public interface JdbcMapping<T> {
+
+    String tableName();
+
+    List<String> columns();
+
+    List<String> schemaStatements();
+
+    String idOf(T item);
+
+    void bind(PreparedStatement statement, T item) throws SQLException;
+
+    T read(ResultSet row) throws SQLException;
+}
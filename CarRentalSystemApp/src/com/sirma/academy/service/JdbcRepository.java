@@ -0,0 +1,207 @@
+package com.sirma.academy.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class JdbcRepository<T> implements Repository<T> {
+    private static final int BATCH_SIZE = 500;
+
+    private final ConnectionPool pool;
+    private final JdbcMapping<T> mapping;
+    private final String selectSql;
+    private final String insertSql;
+    private final String deleteSql;
+    private final ServiceMetrics metrics = ServiceMetrics.getInstance();
+    private boolean closed;
+
+    public JdbcRepository(ConnectionPool pool, JdbcMapping<T> mapping) {
+        this.pool = pool;
+        this.mapping = mapping;
+        List<String> columns = mapping.columns();
+        this.selectSql = "SELECT " + String.join(", ", columns) + " FROM " + mapping.tableName();
+        this.insertSql = "INSERT INTO " + mapping.tableName() + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        this.deleteSql = "DELETE FROM " + mapping.tableName() + " WHERE " + columns.get(0) + " = ?";
+        createSchema();
+        pool.retain();
+    }
+
+    @Override
+    public List<T> loadAll() {
+        long start = System.nanoTime();
+        List<T> items = query(selectSql, null);
+        metrics.recordSince(Metric.LOAD, start);
+        metrics.record(Metric.LOAD_RECORDS, items.size());
+        System.out.println("Loaded " + items.size() + " rows from table " + mapping.tableName());
+        return items;
+    }
+
+    public Optional<T> findById(String id) {
+        List<T> items = query(selectSql + " WHERE " + mapping.columns().get(0) + " = ?", id);
+        return items.isEmpty() ? Optional.empty() : Optional.of(items.get(0));
+    }
+
+    public List<T> findBy(String column, String value) {
+        if (!mapping.columns().contains(column)) {
+            System.out.println("Unknown column " + column + " in table " + mapping.tableName() + ".");
+            return new ArrayList<>();
+        }
+        return query(selectSql + " WHERE " + column + " = ?", value);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> save(T item) {
+        return saveAll(Collections.singletonList(item));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveAll(List<T> items) {
+        return CompletableFuture.completedFuture(write(items, false));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(String id) {
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                statement.setString(1, id);
+                statement.executeUpdate();
+            }
+            return CompletableFuture.completedFuture(true);
+        } catch (SQLException e) {
+            System.err.println("Error deleting " + id + " from table " + mapping.tableName() + ": " + e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public boolean needsCompaction() {
+        return false;
+    }
+
+    @Override
+    public boolean compact(List<T> items) {
+        return write(items, true);
+    }
+
+    @Override
+    public boolean await(CompletableFuture<Boolean> pendingWrite) {
+        return pendingWrite.join();
+    }
+
+    @Override
+    public boolean flush() {
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pool.close();
+        }
+    }
+
+    private void createSchema() {
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : mapping.schemaStatements()) {
+                    statement.execute(sql);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error creating schema for table " + mapping.tableName() + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    private List<T> query(String sql, String parameter) {
+        List<T> items = new ArrayList<>();
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                if (parameter != null) {
+                    statement.setString(1, parameter);
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        items.add(mapping.read(rows));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error querying table " + mapping.tableName() + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+        return items;
+    }
+
+    private boolean write(List<T> items, boolean replaceAll) {
+        long start = System.nanoTime();
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            connection.setAutoCommit(false);
+            try {
+                if (replaceAll) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate("DELETE FROM " + mapping.tableName());
+                    }
+                } else {
+                    try (PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+                        int batched = 0;
+                        for (T item : items) {
+                            delete.setString(1, mapping.idOf(item));
+                            delete.addBatch();
+                            if (++batched % BATCH_SIZE == 0) {
+                                delete.executeBatch();
+                            }
+                        }
+                        delete.executeBatch();
+                    }
+                }
+                try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                    int batched = 0;
+                    for (T item : items) {
+                        mapping.bind(insert, item);
+                        insert.addBatch();
+                        if (++batched % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            metrics.recordSince(Metric.SAVE, start);
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordSince(Metric.SAVE, start, false);
+            System.err.println("Error writing " + items.size() + " rows to table " + mapping.tableName() + ": " + e.getMessage());
+            return false;
+        } finally {
+            pool.release(connection);
+        }
+    }
+}
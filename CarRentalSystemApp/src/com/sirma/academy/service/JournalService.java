@@ -0,0 +1,222 @@
+package com.sirma.academy.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public class JournalService {
+    public static final String UPSERT = "U";
+    public static final String DELETE = "D";
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 0;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+    private static final String PREVIOUS_GENERATION_SUFFIX = ".bak";
+
+    private final String journalPath;
+    private final int compactionThreshold;
+    private final Durability durability;
+    private final GroupCommitWriter writer;
+    private final ServiceMetrics metrics = ServiceMetrics.getInstance();
+    private int entryCount;
+
+    public JournalService(String journalPath) {
+        this(journalPath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public JournalService(String journalPath, int compactionThreshold) {
+        this(journalPath, compactionThreshold, Durability.SYNCHRONOUS);
+    }
+
+    public JournalService(String journalPath, Durability durability) {
+        this(journalPath, DEFAULT_COMPACTION_THRESHOLD, durability);
+    }
+
+    public JournalService(String journalPath, int compactionThreshold, Durability durability) {
+        this.journalPath = journalPath;
+        this.compactionThreshold = compactionThreshold;
+        this.durability = durability;
+        this.writer = durability == Durability.SYNCHRONOUS ? null
+                : new GroupCommitWriter("journal-writer " + journalPath, this::append,
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public synchronized int forEachEntry(Consumer<CsvRecord> consumer) {
+        entryCount = replay(journalPath, consumer);
+        return entryCount;
+    }
+
+    public synchronized int forEachPreviousGenerationEntry(Consumer<CsvRecord> consumer) {
+        return replay(journalPath + PREVIOUS_GENERATION_SUFFIX, consumer);
+    }
+
+    private static int replay(String path, Consumer<CsvRecord> consumer) {
+        int entries = 0;
+        if (!Files.exists(Paths.get(path))) {
+            return entries;
+        }
+
+        try (CsvReader reader = new CsvReader(new FileReader(path, StandardCharsets.UTF_8))) {
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                entries++;
+                if (reader.fieldCount() < 2 || reader.isEmpty(0)) {
+                    System.err.println("Skipping malformed journal entry: '" + reader.line() + "' in " + path);
+                    continue;
+                }
+                try {
+                    consumer.accept(reader);
+                } catch (Exception e) {
+                    System.err.println("Error replaying journal entry: '" + reader.line() + "' in " + path + ". Error: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading journal " + path + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return entries;
+    }
+
+    public boolean appendUpsert(String record) {
+        return await(submitUpsert(record));
+    }
+
+    public boolean appendUpserts(List<String> records) {
+        return await(submitUpserts(records));
+    }
+
+    public boolean appendDelete(String... keyFields) {
+        return await(submitDelete(keyFields));
+    }
+
+    public CompletableFuture<Boolean> submitUpsert(String record) {
+        return submit(Collections.singletonList(UPSERT + "," + record));
+    }
+
+    public CompletableFuture<Boolean> submitUpserts(List<String> records) {
+        List<String> entries = new ArrayList<>(records.size());
+        for (String record : records) {
+            entries.add(UPSERT + "," + record);
+        }
+        return submit(entries);
+    }
+
+    public CompletableFuture<Boolean> submitDelete(String... keyFields) {
+        StringBuilder entry = new StringBuilder(DELETE);
+        for (String keyField : keyFields) {
+            entry.append(',').append(CsvReader.escape(keyField));
+        }
+        return submit(Collections.singletonList(entry.toString()));
+    }
+
+    public boolean await(CompletableFuture<Boolean> pendingWrite) {
+        if (durability == Durability.FIRE_AND_FORGET && !pendingWrite.isDone()) {
+            return true;
+        }
+        return pendingWrite.join();
+    }
+
+    public boolean flush() {
+        return writer == null || writer.flush();
+    }
+
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    private CompletableFuture<Boolean> submit(List<String> entries) {
+        if (writer == null) {
+            return CompletableFuture.completedFuture(append(entries));
+        }
+        return writer.submit(entries);
+    }
+
+    private synchronized boolean append(List<String> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        StringBuilder batch = new StringBuilder(entries.size() * 96);
+        for (String entry : entries) {
+            batch.append(entry).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        Path journal = Paths.get(journalPath);
+        boolean created = !Files.exists(journal);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (durability != Durability.FIRE_AND_FORGET) {
+                channel.force(false);
+                if (created) {
+                    FileService.forceDirectory(journal);
+                }
+            }
+            entryCount += entries.size();
+            metrics.recordSince(Metric.SAVE, start);
+            metrics.record(Metric.SAVE_BYTES, bytes.capacity());
+            return true;
+        } catch (IOException e) {
+            metrics.recordSince(Metric.SAVE, start, false);
+            System.err.println("Error appending to journal " + journalPath + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public synchronized boolean needsCompaction() {
+        return entryCount >= compactionThreshold;
+    }
+
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    public synchronized boolean rotate() {
+        Path journal = Paths.get(journalPath);
+        Path previous = Paths.get(journalPath + PREVIOUS_GENERATION_SUFFIX);
+        try {
+            if (Files.exists(journal)) {
+                Files.move(journal, previous, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(previous);
+            }
+            FileService.forceDirectory(journal);
+            entryCount = 0;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error rotating journal " + journalPath + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static boolean isUpsert(CsvRecord entry) {
+        return entry.fieldEquals(0, UPSERT);
+    }
+
+    public static boolean isDelete(CsvRecord entry) {
+        return entry.fieldEquals(0, DELETE);
+    }
+}
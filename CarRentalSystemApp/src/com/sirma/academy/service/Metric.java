@@ -0,0 +1,36 @@
+package com.sirma.academy.service;
+
+public enum Metric {
+    CAR_LOOKUP("car.lookup", Metric.NANOSECONDS),
+    CAR_SEARCH("car.search", Metric.NANOSECONDS),
+    CUSTOMER_LOOKUP("customer.lookup", Metric.NANOSECONDS),
+    CUSTOMER_SEARCH("customer.search", Metric.NANOSECONDS),
+    RENTAL("car.rental", Metric.NANOSECONDS),
+    RETURN("car.return", Metric.NANOSECONDS),
+    LOAD("file.load", Metric.NANOSECONDS),
+    SAVE("file.save", Metric.NANOSECONDS),
+    LOAD_RECORDS("file.load.records", "records"),
+    SAVE_BYTES("file.save.bytes", "bytes");
+
+    static final String NANOSECONDS = "ns";
+
+    private final String metricName;
+    private final String unit;
+
+    Metric(String metricName, String unit) {
+        this.metricName = metricName;
+        this.unit = unit;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public boolean isLatency() {
+        return NANOSECONDS.equals(unit);
+    }
+}
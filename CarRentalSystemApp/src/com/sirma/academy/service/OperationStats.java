@@ -0,0 +1,121 @@
+package com.sirma.academy.service;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationStats implements OperationStatsMBean {
+    private static final int BUCKETS = 64;
+
+    private final String unit;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    public OperationStats(String unit) {
+        this.unit = unit;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        long sample = Math.max(0, value);
+        count.increment();
+        total.add(sample);
+        max.accumulate(sample);
+        buckets[63 - Long.numberOfLeadingZeros(sample | 1)].increment();
+    }
+
+    public void record(long value, boolean successful) {
+        record(value);
+        if (!successful) {
+            failures.increment();
+        }
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getTotal() {
+        return total.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : (double) total.sum() / samples;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public long getPercentile50() {
+        return valueAtPercentile(50);
+    }
+
+    @Override
+    public long getPercentile90() {
+        return valueAtPercentile(90);
+    }
+
+    @Override
+    public long getPercentile99() {
+        return valueAtPercentile(99);
+    }
+
+    @Override
+    public long getPercentile999() {
+        return valueAtPercentile(99.9);
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        failures.reset();
+        total.reset();
+        max.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    public long valueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            samples += counts[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return getMax();
+    }
+}
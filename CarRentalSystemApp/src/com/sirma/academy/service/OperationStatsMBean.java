@@ -0,0 +1,25 @@
+package com.sirma.academy.service;
+
+public interface OperationStatsMBean {
+    String getUnit();
+
+    long getCount();
+
+    long getFailureCount();
+
+    long getTotal();
+
+    double getMean();
+
+    long getMax();
+
+    long getPercentile50();
+
+    long getPercentile90();
+
+    long getPercentile99();
+
+    long getPercentile999();
+
+    void reset();
+}
@@ -0,0 +1,75 @@
+package com.sirma.academy.service;
+
+import java.util.Objects;
+
+public final class PageCursor implements Comparable<PageCursor> {
+    private final long number;
+    private final String text;
+    private final String id;
+
+    PageCursor(long number, String text, String id) {
+        this.number = number;
+        this.text = text;
+        this.id = id;
+    }
+
+    @Override
+    public int compareTo(PageCursor other) {
+        int byNumber = Long.compare(number, other.number);
+        if (byNumber != 0) {
+            return byNumber;
+        }
+        int byText = compareText(text, other.text);
+        return byText != 0 ? byText : compareText(id, other.id);
+    }
+
+    static int compareText(String left, String right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : 1) : -1;
+        }
+        boolean leftNumber = isNumber(left);
+        boolean rightNumber = isNumber(right);
+        if (leftNumber != rightNumber) {
+            return leftNumber ? -1 : 1;
+        }
+        if (leftNumber && left.length() != right.length()) {
+            return Integer.compare(left.length(), right.length());
+        }
+        int ignoringCase = String.CASE_INSENSITIVE_ORDER.compare(left, right);
+        return ignoringCase != 0 ? ignoringCase : left.compareTo(right);
+    }
+
+    private static boolean isNumber(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageCursor)) {
+            return false;
+        }
+        PageCursor other = (PageCursor) o;
+        return number == other.number && Objects.equals(text, other.text) && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, text, id);
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{" + number + ", " + text + ", " + id + "}";
+    }
+}
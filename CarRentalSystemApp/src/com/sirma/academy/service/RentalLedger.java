@@ -0,0 +1,399 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Rental;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class RentalLedger {
+    private static final String CSV_HEADER = "carId,customerId,rentalStartDate,expectedReturnDate,actualReturnDate,dailyRate";
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int DURATION_BUCKETS = Integer.SIZE;
+
+    private static final CsvFormatter<Rental> RENTAL_CSV_FORMATTER = (rental, out) -> {
+        out.writeField(rental.getCarId());
+        out.writeField(rental.getCustomerId());
+        out.writeDate(rental.getRentalStartDate());
+        out.writeDate(rental.getExpectedReturnDate());
+        out.writeDate(rental.getActualReturnDate());
+        out.writeMoney(rental.getDailyRate());
+    };
+
+    private final Path path;
+    private FileChannel channel;
+    private long end;
+    private int size;
+    private final DurationBucket[] buckets = new DurationBucket[DURATION_BUCKETS];
+    private final Map<String, OffsetList> offsetsByCustomer = new HashMap<>();
+
+    public RentalLedger(String filePath) {
+        this.path = Paths.get(filePath);
+        buildIndex();
+    }
+
+    public boolean record(Rental rental) {
+        return recordAll(Collections.singletonList(rental));
+    }
+
+    public synchronized boolean recordAll(List<Rental> rentals) {
+        if (rentals.isEmpty()) {
+            return true;
+        }
+        FileChannel ledger = null;
+        long start = 0;
+        try {
+            ledger = channel();
+            start = end;
+            long[] offsets = new long[rentals.size()];
+            StringBuilder lines = new StringBuilder();
+            long offset = start;
+            for (int i = 0; i < rentals.size(); i++) {
+                String line = CsvWriter.formatRecord(RENTAL_CSV_FORMATTER, rentals.get(i)) + "\n";
+                offsets[i] = offset;
+                offset += line.getBytes(StandardCharsets.UTF_8).length;
+                lines.append(line);
+            }
+            write(ledger, lines.toString());
+            ledger.force(false);
+            for (int i = 0; i < rentals.size(); i++) {
+                Rental rental = rentals.get(i);
+                insert((int) rental.getRentalStartDate().toEpochDay(), (int) rental.getActualReturnDate().toEpochDay(), offsets[i]);
+                addCustomerOffset(rental.getCustomerId(), offsets[i]);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error appending rental to " + path + ": " + e.getMessage());
+            e.printStackTrace();
+            if (ledger != null) {
+                truncate(ledger, start);
+            }
+            return false;
+        }
+    }
+
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + path + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    public List<Rental> findOverlapping(LocalDate from, LocalDate to) {
+        List<Rental> rentals = new ArrayList<>();
+        forEachOverlapping(from, to, rentals::add);
+        return rentals;
+    }
+
+    public synchronized void forEachOverlapping(LocalDate from, LocalDate to, Consumer<Rental> consumer) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        int matches = 0;
+        int[] matchStarts = new int[16];
+        long[] matchOffsets = new long[16];
+        for (DurationBucket bucket : buckets) {
+            if (bucket == null) {
+                continue;
+            }
+            bucket.ensureSorted();
+            int last = bucket.lowerBound(toDay + 1);
+            for (int i = bucket.lowerBound(fromDay - bucket.maxDurationDays); i < last; i++) {
+                if (bucket.endDays[i] >= fromDay) {
+                    if (matches == matchStarts.length) {
+                        matchStarts = Arrays.copyOf(matchStarts, matches * 2);
+                        matchOffsets = Arrays.copyOf(matchOffsets, matches * 2);
+                    }
+                    matchStarts[matches] = bucket.startDays[i];
+                    matchOffsets[matches] = bucket.offsets[i];
+                    matches++;
+                }
+            }
+        }
+
+        if (matches == 0) {
+            return;
+        }
+        long[] order = startOrder(matchStarts, matches);
+        try {
+            FileChannel ledger = channel();
+            for (long entry : order) {
+                Rental rental = readAt(ledger, matchOffsets[(int) entry]);
+                if (rental != null) {
+                    consumer.accept(rental);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading rentals from " + path + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized List<Rental> findByCustomer(String customerId) {
+        List<Rental> rentals = new ArrayList<>();
+        OffsetList customerOffsets = offsetsByCustomer.get(customerId);
+        if (customerOffsets == null) {
+            return rentals;
+        }
+
+        try {
+            FileChannel ledger = channel();
+            for (int i = 0; i < customerOffsets.count; i++) {
+                Rental rental = readAt(ledger, customerOffsets.values[i]);
+                if (rental != null) {
+                    rentals.add(rental);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading rentals from " + path + ": " + e.getMessage());
+        }
+        rentals.sort((first, second) -> first.getRentalStartDate().compareTo(second.getRentalStartDate()));
+        return rentals;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void buildIndex() {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        int count = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 64 * 1024)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            long offset = 0;
+            long lineStart = 0;
+            boolean header = true;
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                } else {
+                    Rental rental = parse(line.toByteArray());
+                    if (rental != null) {
+                        insert((int) rental.getRentalStartDate().toEpochDay(),
+                                (int) rental.getActualReturnDate().toEpochDay(), lineStart);
+                        addCustomerOffset(rental.getCustomerId(), lineStart);
+                        count++;
+                    }
+                }
+                line.reset();
+                lineStart = offset;
+            }
+        } catch (IOException e) {
+            System.err.println("Error indexing rentals in " + path + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("Indexed " + count + " rentals from " + path);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel != null) {
+            return channel;
+        }
+        boolean created = !Files.exists(path);
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            end = opened.size();
+            if (end == 0) {
+                write(opened, CSV_HEADER + "\n");
+            } else if (!endsWithNewline(opened)) {
+                write(opened, "\n");
+            }
+            if (created) {
+                opened.force(false);
+                FileService.forceDirectory(path);
+            }
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        channel = opened;
+        return channel;
+    }
+
+    private void write(FileChannel ledger, String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            end += ledger.write(bytes, end);
+        }
+    }
+
+    private void truncate(FileChannel ledger, long length) {
+        end = length;
+        try {
+            ledger.truncate(length);
+        } catch (IOException e) {
+            System.err.println("Error truncating " + path + " after a failed append: " + e.getMessage());
+        }
+    }
+
+    private boolean endsWithNewline(FileChannel ledger) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        ledger.read(last, ledger.size() - 1);
+        return last.get(0) == '\n';
+    }
+
+    private Rental readAt(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (true) {
+            int read = channel.read(buffer, offset + buffer.position());
+            for (int i = 0; i < buffer.position(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return parse(Arrays.copyOf(buffer.array(), i));
+                }
+            }
+            if (read < 0) {
+                return parse(Arrays.copyOf(buffer.array(), buffer.position()));
+            }
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+    }
+
+    private Rental parse(byte[] line) {
+        try {
+            CsvReader record = new CsvReader(StandardCharsets.UTF_8.decode(ByteBuffer.wrap(line)));
+            if (!record.next() || record.fieldCount() != 6) {
+                return null;
+            }
+            return new Rental(record.field(0), record.field(1), record.dateField(2),
+                    record.isEmpty(3) ? null : record.dateField(3), record.dateField(4),
+                    record.isEmpty(5) ? 0.0 : record.doubleField(5));
+        } catch (Exception e) {
+            System.err.println("Skipping malformed rental line in " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void insert(int startDay, int endDay, long offset) {
+        bucketFor(startDay, endDay).append(startDay, endDay, offset);
+        size++;
+    }
+
+    private DurationBucket bucketFor(int startDay, int endDay) {
+        int duration = Math.max(0, endDay - startDay);
+        int index = DURATION_BUCKETS - Integer.numberOfLeadingZeros(duration);
+        if (buckets[index] == null) {
+            buckets[index] = new DurationBucket();
+        }
+        return buckets[index];
+    }
+
+    private static long[] startOrder(int[] startDays, int count) {
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (long) startDays[i] << 32 | i;
+        }
+        Arrays.sort(order);
+        return order;
+    }
+
+    private void addCustomerOffset(String customerId, long offset) {
+        offsetsByCustomer.computeIfAbsent(customerId, key -> new OffsetList()).add(offset);
+    }
+
+    private static final class DurationBucket {
+        private int size;
+        private int sortedSize;
+        private int[] startDays = new int[INITIAL_CAPACITY];
+        private int[] endDays = new int[INITIAL_CAPACITY];
+        private long[] offsets = new long[INITIAL_CAPACITY];
+        private int maxDurationDays;
+
+        private void append(int startDay, int endDay, long offset) {
+            ensureCapacity(size + 1);
+            if (sortedSize == size && (size == 0 || startDays[size - 1] <= startDay)) {
+                sortedSize++;
+            }
+            startDays[size] = startDay;
+            endDays[size] = endDay;
+            offsets[size] = offset;
+            size++;
+            maxDurationDays = Math.max(maxDurationDays, endDay - startDay);
+        }
+
+        private void ensureSorted() {
+            if (sortedSize == size) {
+                return;
+            }
+            long[] order = startOrder(startDays, size);
+            int[] sortedStarts = new int[startDays.length];
+            int[] sortedEnds = new int[endDays.length];
+            long[] sortedOffsets = new long[offsets.length];
+            for (int i = 0; i < size; i++) {
+                int source = (int) order[i];
+                sortedStarts[i] = startDays[source];
+                sortedEnds[i] = endDays[source];
+                sortedOffsets[i] = offsets[source];
+            }
+            startDays = sortedStarts;
+            endDays = sortedEnds;
+            offsets = sortedOffsets;
+            sortedSize = size;
+        }
+
+        private int lowerBound(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (startDays[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > startDays.length) {
+                int newCapacity = Math.max(capacity, startDays.length + (startDays.length >> 1));
+                startDays = Arrays.copyOf(startDays, newCapacity);
+                endDays = Arrays.copyOf(endDays, newCapacity);
+                offsets = Arrays.copyOf(offsets, newCapacity);
+            }
+        }
+    }
+
+    private static final class OffsetList {
+        private long[] values = new long[2];
+        private int count;
+
+        private void add(long offset) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = offset;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sirma.academy.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface Repository<T> {
+
+    List<T> loadAll();
+
+    CompletableFuture<Boolean> save(T item);
+
+    CompletableFuture<Boolean> saveAll(List<T> items);
+
+    CompletableFuture<Boolean> delete(String id);
+
+    boolean needsCompaction();
+
+    boolean compact(List<T> items);
+
+    boolean await(CompletableFuture<Boolean> pendingWrite);
+
+    boolean flush();
+
+    void close();
+}
@@ -0,0 +1,169 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Reservation;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class ReservationCalendar {
+    private static final String CSV_HEADER = "carId,customerId,startDate,endDate";
+
+    private final Map<String, NavigableMap<LocalDate, Reservation>> reservationsByCar = new ConcurrentHashMap<>();
+    private final FileService fileService;
+    private final JournalService journalService;
+    private final String filePath;
+
+    private final Function<CsvRecord, Reservation> reservationParser = record -> {
+        if (record.fieldCount() != 4) {
+            System.err.println("Skipping malformed reservation line (expected 4 parts): " + record.line());
+            return null;
+        }
+        try {
+            return new Reservation(record.field(0), record.field(1), record.dateField(2), record.dateField(3));
+        } catch (Exception e) {
+            System.err.println("Error parsing reservation line: " + record.line() + ". " + e.getMessage());
+            return null;
+        }
+    };
+
+    private static final CsvFormatter<Reservation> RESERVATION_CSV_FORMATTER = (reservation, out) -> {
+        out.writeField(reservation.getCarId());
+        out.writeField(reservation.getCustomerId());
+        out.writeDate(reservation.getStartDate());
+        out.writeDate(reservation.getEndDate());
+    };
+
+    public ReservationCalendar(String filePath) {
+        this.fileService = new FileService(true);
+        this.journalService = new JournalService(filePath + ".journal");
+        this.filePath = filePath;
+        load();
+    }
+
+    private void load() {
+        Path readable = fileService.resolveReadablePath(filePath);
+        List<Reservation> stored = readable != null ? fileService.loadData(readable, reservationParser)
+                : fileService.loadData(filePath, reservationParser);
+        for (Reservation reservation : stored) {
+            if (reservation != null) {
+                calendarOf(reservation.getCarId()).put(reservation.getStartDate(), reservation);
+            }
+        }
+        Consumer<CsvRecord> replay = entry -> {
+            if (JournalService.isUpsert(entry)) {
+                Reservation reservation = reservationParser.apply(entry.slice(1));
+                if (reservation != null) {
+                    calendarOf(reservation.getCarId()).put(reservation.getStartDate(), reservation);
+                }
+            } else if (JournalService.isDelete(entry) && entry.fieldCount() == 3) {
+                NavigableMap<LocalDate, Reservation> calendar = reservationsByCar.get(entry.field(1));
+                if (calendar != null) {
+                    calendar.remove(entry.dateField(2));
+                }
+            }
+        };
+        if (fileService.isPreviousGeneration(readable, filePath)) {
+            journalService.forEachPreviousGenerationEntry(replay);
+        }
+        journalService.forEachEntry(replay);
+        if (journalService.needsCompaction()) {
+            compact();
+        }
+    }
+
+    public boolean isBooked(String carId, LocalDate from, LocalDate to) {
+        return findConflict(carId, from, to) != null;
+    }
+
+    public Reservation findConflict(String carId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Reservation> calendar = reservationsByCar.get(carId);
+        if (calendar == null) {
+            return null;
+        }
+        Map.Entry<LocalDate, Reservation> latestStartingBefore = calendar.floorEntry(to);
+        if (latestStartingBefore != null && !latestStartingBefore.getValue().getEndDate().isBefore(from)) {
+            return latestStartingBefore.getValue();
+        }
+        return null;
+    }
+
+    public List<Reservation> findOverlapping(String carId, LocalDate from, LocalDate to) {
+        List<Reservation> overlapping = new ArrayList<>();
+        NavigableMap<LocalDate, Reservation> calendar = reservationsByCar.get(carId);
+        if (calendar == null) {
+            return overlapping;
+        }
+        for (Reservation reservation : calendar.headMap(to, true).descendingMap().values()) {
+            if (reservation.getEndDate().isBefore(from)) {
+                break;
+            }
+            overlapping.add(0, reservation);
+        }
+        return overlapping;
+    }
+
+    public synchronized boolean add(Reservation reservation) {
+        if (isBooked(reservation.getCarId(), reservation.getStartDate(), reservation.getEndDate())) {
+            return false;
+        }
+        calendarOf(reservation.getCarId()).put(reservation.getStartDate(), reservation);
+        boolean saved = journalService.appendUpsert(CsvWriter.formatRecord(RESERVATION_CSV_FORMATTER, reservation));
+        compactIfNeeded();
+        return saved;
+    }
+
+    public synchronized boolean remove(Reservation reservation) {
+        NavigableMap<LocalDate, Reservation> calendar = reservationsByCar.get(reservation.getCarId());
+        if (calendar == null || calendar.remove(reservation.getStartDate()) == null) {
+            return false;
+        }
+        boolean saved = journalService.appendDelete(reservation.getCarId(), reservation.getStartDate().toString());
+        compactIfNeeded();
+        return saved;
+    }
+
+    public List<Reservation> findByCar(String carId) {
+        NavigableMap<LocalDate, Reservation> calendar = reservationsByCar.get(carId);
+        return calendar == null ? new ArrayList<>() : new ArrayList<>(calendar.values());
+    }
+
+    public void forEachReservation(Consumer<Reservation> action) {
+        for (NavigableMap<LocalDate, Reservation> calendar : reservationsByCar.values()) {
+            calendar.values().forEach(action);
+        }
+    }
+
+    public synchronized boolean compact() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (NavigableMap<LocalDate, Reservation> calendar : reservationsByCar.values()) {
+            reservations.addAll(calendar.values());
+        }
+        if (!fileService.saveData(filePath, CSV_HEADER, reservations, RESERVATION_CSV_FORMATTER)) {
+            System.err.println("Failed to compact reservation journal into " + filePath + ". Journal is kept.");
+            return false;
+        }
+        if (!fileService.verify(filePath)) {
+            System.err.println("Compacted reservation file " + filePath + " failed verification. Journal is kept.");
+            return false;
+        }
+        return journalService.rotate();
+    }
+
+    private void compactIfNeeded() {
+        if (journalService.needsCompaction()) {
+            compact();
+        }
+    }
+
+    private NavigableMap<LocalDate, Reservation> calendarOf(String carId) {
+        return reservationsByCar.computeIfAbsent(carId, key -> new ConcurrentSkipListMap<>());
+    }
+}
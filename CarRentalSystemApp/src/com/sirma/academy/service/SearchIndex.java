@@ -0,0 +1,133 @@
+package com.sirma.academy.service;
+
+import com.sirma.academy.model.Searchable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+public class SearchIndex<T> {
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<T>> postings = new ConcurrentHashMap<>();
+    private final Map<T, IndexedItem> indexedItems = new HashMap<>();
+    private final Map<String, String> canonicalGrams = new HashMap<>();
+    private final Function<? super T, List<String>> valuesOf;
+    private final BiPredicate<? super T, String> matcher;
+    private long nextSequence;
+
+    public SearchIndex(Function<? super T, List<String>> valuesOf, BiPredicate<? super T, String> matcher) {
+        this.valuesOf = valuesOf;
+        this.matcher = matcher;
+    }
+
+    public static <T extends Searchable> SearchIndex<T> ofSearchable() {
+        return new SearchIndex<>(Searchable::searchableValues, Searchable::matches);
+    }
+
+    public synchronized void rebuild(Collection<T> items) {
+        postings.clear();
+        indexedItems.clear();
+        canonicalGrams.clear();
+        nextSequence = 0;
+        for (T item : items) {
+            index(item);
+        }
+    }
+
+    public synchronized void index(T item) {
+        IndexedItem previous = indexedItems.get(item);
+        long sequence = previous != null ? previous.sequence : nextSequence++;
+        remove(item);
+        Set<String> grams = new HashSet<>();
+        for (String value : valuesOf.apply(item)) {
+            addGrams(value.toLowerCase(), grams);
+        }
+        String[] itemGrams = new String[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            String canonical = canonicalGrams.computeIfAbsent(gram, key -> key);
+            postings.computeIfAbsent(canonical, key -> ConcurrentHashMap.newKeySet()).add(item);
+            itemGrams[i++] = canonical;
+        }
+        indexedItems.put(item, new IndexedItem(itemGrams, sequence));
+    }
+
+    public synchronized void remove(T item) {
+        IndexedItem indexed = indexedItems.remove(item);
+        if (indexed == null) {
+            return;
+        }
+        for (String gram : indexed.grams) {
+            Set<T> items = postings.get(gram);
+            if (items != null) {
+                items.remove(item);
+                if (items.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public boolean canSearch(String criteria) {
+        return criteria != null && criteria.length() >= GRAM_LENGTH;
+    }
+
+    public List<T> search(String criteria) {
+        if (!canSearch(criteria)) {
+            throw new IllegalArgumentException("Search criteria must have at least " + GRAM_LENGTH + " characters.");
+        }
+
+        Set<String> grams = new HashSet<>();
+        addGrams(criteria.toLowerCase(), grams);
+        Set<T> candidates = null;
+        for (String gram : grams) {
+            Set<T> items = postings.get(gram);
+            if (items == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || items.size() < candidates.size()) {
+                candidates = items;
+            }
+        }
+
+        List<T> found = new ArrayList<>();
+        for (T candidate : candidates) {
+            if (matcher.test(candidate, criteria)) {
+                found.add(candidate);
+            }
+        }
+        synchronized (this) {
+            found.sort(Comparator.comparingLong(item -> {
+                IndexedItem indexed = indexedItems.get(item);
+                return indexed != null ? indexed.sequence : Long.MAX_VALUE;
+            }));
+        }
+        return found;
+    }
+
+    private static final class IndexedItem {
+        private final String[] grams;
+        private final long sequence;
+
+        private IndexedItem(String[] grams, long sequence) {
+            this.grams = grams;
+            this.sequence = sequence;
+        }
+    }
+
+    private static void addGrams(String value, Set<String> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sirma.academy.service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class ServiceMetrics {
+    private static final String OBJECT_NAME_PREFIX = "com.sirma.academy:type=ServiceMetrics,name=";
+    private static final Metric[] METRICS = Metric.values();
+    private static final ServiceMetrics INSTANCE = new ServiceMetrics();
+
+    private final OperationStats[] stats = new OperationStats[METRICS.length];
+    private boolean registered;
+
+    private ServiceMetrics() {
+        for (Metric metric : METRICS) {
+            stats[metric.ordinal()] = new OperationStats(metric.getUnit());
+        }
+    }
+
+    public static ServiceMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public OperationStats get(Metric metric) {
+        return stats[metric.ordinal()];
+    }
+
+    public void record(Metric metric, long value) {
+        stats[metric.ordinal()].record(value);
+    }
+
+    public void recordSince(Metric metric, long startNanos) {
+        stats[metric.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public void recordSince(Metric metric, long startNanos, boolean successful) {
+        stats[metric.ordinal()].record(System.nanoTime() - startNanos, successful);
+    }
+
+    public synchronized boolean registerMBeans() {
+        if (registered) {
+            return true;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Metric metric : METRICS) {
+                ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + metric.getMetricName());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(get(metric), name);
+                }
+            }
+            registered = true;
+            return true;
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBeans: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void reset() {
+        for (OperationStats operationStats : stats) {
+            operationStats.reset();
+        }
+    }
+
+    public String dump() {
+        StringBuilder report = new StringBuilder(String.format("%-20s %10s %9s %11s %11s %11s %11s %11s%n",
+                "metric", "count", "failures", "mean", "p50", "p90", "p99", "max"));
+        for (Metric metric : METRICS) {
+            OperationStats operationStats = get(metric);
+            report.append(String.format("%-20s %10d %9d %11s %11s %11s %11s %11s%n",
+                    metric.getMetricName(), operationStats.getCount(), operationStats.getFailureCount(),
+                    format(metric, operationStats.getMean()),
+                    format(metric, operationStats.getPercentile50()),
+                    format(metric, operationStats.getPercentile90()),
+                    format(metric, operationStats.getPercentile99()),
+                    format(metric, operationStats.getMax())));
+        }
+        return report.toString();
+    }
+
+    private static String format(Metric metric, double value) {
+        if (!metric.isLatency()) {
+            return String.format("%.0f", value);
+        }
+        if (value >= 1_000_000) {
+            return String.format("%.2f ms", value / 1_000_000);
+        }
+        if (value >= 1_000) {
+            return String.format("%.1f us", value / 1_000);
+        }
+        return String.format("%.0f ns", value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.sirma.academy.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+public class SortedIndex<T> {
+    private final ConcurrentSkipListMap<PageCursor, T> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, PageCursor> keysById = new ConcurrentHashMap<>();
+    private final ToLongFunction<T> numberOf;
+    private final Function<T, String> textOf;
+    private final Function<T, String> idOf;
+    private final Predicate<? super T> membership;
+
+    public SortedIndex(ToLongFunction<T> numberOf, Function<T, String> textOf, Function<T, String> idOf) {
+        this(numberOf, textOf, idOf, item -> true);
+    }
+
+    public SortedIndex(ToLongFunction<T> numberOf, Function<T, String> textOf, Function<T, String> idOf,
+                       Predicate<? super T> membership) {
+        this.numberOf = numberOf;
+        this.textOf = textOf;
+        this.idOf = idOf;
+        this.membership = membership;
+    }
+
+    public void rebuild(Collection<T> items) {
+        entries.clear();
+        keysById.clear();
+        for (T item : items) {
+            index(item);
+        }
+    }
+
+    public void index(T item) {
+        String id = idOf.apply(item);
+        if (!membership.test(item)) {
+            remove(id);
+            return;
+        }
+        PageCursor key = new PageCursor(numberOf.applyAsLong(item), textOf.apply(item), id);
+        keysById.compute(id, (ignored, previous) -> {
+            if (previous != null && !previous.equals(key)) {
+                entries.remove(previous);
+            }
+            entries.put(key, item);
+            return key;
+        });
+    }
+
+    public void remove(String id) {
+        keysById.computeIfPresent(id, (ignored, previous) -> {
+            entries.remove(previous);
+            return null;
+        });
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    public Iterator<T> iterator(PageCursor after) {
+        return tail(after).values().iterator();
+    }
+
+    public Page<T> page(PageCursor after, int pageSize, Predicate<? super T> filter) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        List<T> items = new ArrayList<>(pageSize);
+        PageCursor last = null;
+        for (Map.Entry<PageCursor, T> entry : tail(after).entrySet()) {
+            if (!filter.test(entry.getValue())) {
+                continue;
+            }
+            if (items.size() == pageSize) {
+                return new Page<>(items, last);
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(items, null);
+    }
+
+    private ConcurrentNavigableMap<PageCursor, T> tail(PageCursor after) {
+        return after == null ? entries : entries.tailMap(after, false);
+    }
+}